@@ -1,13 +1,18 @@
 package com.example.campus.auth;
 
+import com.example.campus.user.CurrentUser;
 import com.example.campus.user.Role;
+import com.example.campus.user.StudentIdAllocator;
 import com.example.campus.user.User;
 import com.example.campus.user.UserRepository;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import com.example.campus.security.JwtService;
@@ -15,7 +20,6 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -38,15 +42,24 @@ public class AuthController {
 	private final PasswordEncoder passwordEncoder;
 	private final AuthenticationManager authenticationManager;
 	private final JwtService jwtService;
+	private final LoginAdmissionPool loginAdmissionPool;
+	private final StudentIdAllocator studentIdAllocator;
+
+	@Value("${app.login.retry-after-seconds:2}")
+	private int loginRetryAfterSeconds;
 
 	public AuthController(UserRepository userRepository,
 						  PasswordEncoder passwordEncoder,
 						  AuthenticationManager authenticationManager,
-						  JwtService jwtService) {
+						  JwtService jwtService,
+						  LoginAdmissionPool loginAdmissionPool,
+						  StudentIdAllocator studentIdAllocator) {
 		this.userRepository = userRepository;
 		this.passwordEncoder = passwordEncoder;
 		this.authenticationManager = authenticationManager;
 		this.jwtService = jwtService;
+		this.loginAdmissionPool = loginAdmissionPool;
+		this.studentIdAllocator = studentIdAllocator;
 	}
 
 	@PostMapping("/signup")
@@ -67,8 +80,7 @@ public class AuthController {
 
 		// Auto-generate student ID for students
 		if (role == Role.STUDENT) {
-			String studentId = generateStudentId();
-			user.setStudentId(studentId);
+			user.setStudentId(studentIdAllocator.next());
 		}
 
 		userRepository.save(user);
@@ -76,50 +88,53 @@ public class AuthController {
 	}
 
 	@PostMapping("/login")
-	public ResponseEntity<?> login(@Valid @RequestBody LoginRequest req) {
-		return userRepository.findByUsername(req.username())
-				.map(u -> {
-					try {
-						Authentication authentication = authenticationManager.authenticate(
-								new UsernamePasswordAuthenticationToken(req.username(), req.password()));
-						SecurityContextHolder.getContext().setAuthentication(authentication);
-						String token = jwtService.generateToken((UserDetails) authentication.getPrincipal(), Map.of("role", u.getRole().name()));
-						return ResponseEntity.ok(new LoginResponse(
-								"Login successful as " + u.getRole().name(),
-								token,
-								u.getRole().name(),
-								Map.of(
-										"id", u.getId(),
-										"username", u.getUsername(),
-										"role", u.getRole().name()
-								)
-						));
+	public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest req) {
+		User u = userRepository.findByUsername(req.username()).orElse(null);
+		if (u == null) {
+			return CompletableFuture.completedFuture(
+					ResponseEntity.status(404).body(new MessageResponse("User not found in database")));
+		}
+		try {
+			// BCrypt verification runs on the bounded login pool, not on the servlet thread
+			return loginAdmissionPool.submit(() -> {
+				try {
+					Authentication authentication = authenticationManager.authenticate(
+							new UsernamePasswordAuthenticationToken(req.username(), req.password()));
+					String token = jwtService.generateToken((UserDetails) authentication.getPrincipal(), Map.of("role", u.getRole().name(), "uid", u.getId()));
+					return ResponseEntity.ok(new LoginResponse(
+							"Login successful as " + u.getRole().name(),
+							token,
+							u.getRole().name(),
+							Map.of(
+									"id", u.getId(),
+									"username", u.getUsername(),
+									"role", u.getRole().name()
+							)
+					));
 
-					} catch (BadCredentialsException ex) {
-						return ResponseEntity.status(401).body(new MessageResponse("Invalid credentials"));
-					}
-				})
-				.orElseGet(() -> ResponseEntity.status(404).body(new MessageResponse("User not found in database")));
+				} catch (BadCredentialsException ex) {
+					return ResponseEntity.status(401).body(new MessageResponse("Invalid credentials"));
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			return CompletableFuture.completedFuture(ResponseEntity.status(429)
+					.header("Retry-After", String.valueOf(loginRetryAfterSeconds))
+					.body(new MessageResponse("Too many login attempts, please retry shortly")));
+		}
 	}
 
 	@GetMapping("/me")
-	public ResponseEntity<?> me(@AuthenticationPrincipal UserDetails userDetails) {
+	public ResponseEntity<?> me(@AuthenticationPrincipal UserDetails userDetails, CurrentUser user) {
 		if (userDetails == null) {
 			return ResponseEntity.status(401).body(new MessageResponse("Unauthorized"));
 		}
-		return userRepository.findByUsername(userDetails.getUsername())
-				.<ResponseEntity<?>>map(u -> ResponseEntity.ok(Map.of(
-						"id", u.getId(),
-						"username", u.getUsername(),
-						"role", u.getRole().name()
-				)))
-				.orElseGet(() -> ResponseEntity.status(404).body(new MessageResponse("User not found in database")));
-	}
-
-	private String generateStudentId() {
-		// Generate student ID in format: STU + year + 4-digit number
-		String year = String.valueOf(java.time.Year.now().getValue()).substring(2);
-		long count = userRepository.count() + 1;
-		return "STU" + year + String.format("%04d", count);
+		if (user == null) {
+			return ResponseEntity.status(404).body(new MessageResponse("User not found in database"));
+		}
+		return ResponseEntity.ok(Map.of(
+				"id", user.id(),
+				"username", user.username(),
+				"role", user.role().name()
+		));
 	}
 }
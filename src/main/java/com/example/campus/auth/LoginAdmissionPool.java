@@ -0,0 +1,61 @@
+package com.example.campus.auth;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs password verification on a fixed pool sized to the core count, so a login storm
+ * cannot tie up every servlet thread with BCrypt work. Submissions beyond the queue
+ * capacity are rejected and the caller answers 429.
+ */
+@Component
+public class LoginAdmissionPool {
+
+	private final ThreadPoolExecutor executor;
+	private final Timer verifyTimer;
+
+	public LoginAdmissionPool(MeterRegistry meterRegistry,
+							  @Value("${app.login.pool-size:0}") int poolSize,
+							  @Value("${app.login.queue-capacity:256}") int queueCapacity) {
+		int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+		AtomicInteger counter = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				r -> {
+					Thread t = new Thread(r, "login-verify-" + counter.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+
+		this.verifyTimer = Timer.builder("auth.login.verify")
+				.description("Time spent verifying a login password")
+				.register(meterRegistry);
+		Gauge.builder("auth.login.queue.depth", executor, e -> e.getQueue().size())
+				.description("Logins waiting for a verification thread")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * @throws RejectedExecutionException when the queue is full
+	 */
+	public <T> CompletableFuture<T> submit(Supplier<T> task) {
+		return CompletableFuture.supplyAsync(() -> verifyTimer.record(task), executor);
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdown();
+	}
+}
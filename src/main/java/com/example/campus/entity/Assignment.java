@@ -6,7 +6,10 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "assignments")
+@Table(name = "assignments", indexes = {
+        @Index(name = "idx_assignments_assigned_by", columnList = "assigned_by"),
+        @Index(name = "idx_assignments_due_date", columnList = "due_date")
+})
 public class Assignment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -5,7 +5,10 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "assignment_submissions")
+@Table(name = "assignment_submissions", indexes = {
+        @Index(name = "idx_submissions_assignment_status", columnList = "assignment_id, status"),
+        @Index(name = "idx_submissions_assignment_student", columnList = "assignment_id, student_id")
+})
 public class AssignmentSubmission {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,6 +28,15 @@ public class AssignmentSubmission {
     @Column(name = "file_path")
     private String filePath;
 
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "file_content_type")
+    private String fileContentType;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
     @Column(name = "submitted_at")
     private LocalDate submittedAt;
 
@@ -74,6 +86,15 @@ public class AssignmentSubmission {
     public String getFilePath() { return filePath; }
     public void setFilePath(String filePath) { this.filePath = filePath; }
 
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public String getFileContentType() { return fileContentType; }
+    public void setFileContentType(String fileContentType) { this.fileContentType = fileContentType; }
+
+    public Long getFileSize() { return fileSize; }
+    public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
+
     public LocalDate getSubmittedAt() { return submittedAt; }
     public void setSubmittedAt(LocalDate submittedAt) { this.submittedAt = submittedAt; }
 
@@ -6,10 +6,19 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "attendance")
+@Table(name = "attendance", uniqueConstraints = {
+        // Also serves as the (student_id, subject, date) index for per-student lookups
+        @UniqueConstraint(name = "uk_attendance_student_subject_date", columnNames = {"student_id", "subject", "date"})
+}, indexes = {
+        @Index(name = "idx_attendance_subject_date", columnList = "subject, date")
+})
 public class Attendance {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence ids (a table on MySQL) so Hibernate can batch inserts; IDENTITY cannot
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attendance_seq")
+    @SequenceGenerator(name = "attendance_seq", sequenceName = "attendance_seq", allocationSize = Attendance.ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotNull
@@ -0,0 +1,52 @@
+package com.example.campus.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Running present/total counts per student and subject, kept up to date by every
+ * attendance write so percentage endpoints never scan the attendance table.
+ */
+@Entity
+@Table(name = "attendance_summary", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_attendance_summary_student_subject", columnNames = {"student_id", "subject"})
+}, indexes = {
+        // Per-subject reads, already in student order for paging
+        @Index(name = "idx_attendance_summary_subject_student", columnList = "subject, student_id")
+})
+public class AttendanceSummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @Column(name = "present", nullable = false)
+    private Integer present;
+
+    @Column(name = "total", nullable = false)
+    private Integer total;
+
+    public double getPercentage() {
+        return total > 0 ? Math.round(present * 10000.0 / total) / 100.0 : 0.0;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public Integer getPresent() { return present; }
+    public void setPresent(Integer present) { this.present = present; }
+
+    public Integer getTotal() { return total; }
+    public void setTotal(Integer total) { this.total = total; }
+}
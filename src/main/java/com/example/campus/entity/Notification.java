@@ -6,7 +6,10 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_target_user", columnList = "target_user_id"),
+        @Index(name = "idx_notifications_target_role", columnList = "target_role, target_user_id")
+})
 public class Notification {
 
     @Id
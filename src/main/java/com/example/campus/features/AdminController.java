@@ -2,16 +2,23 @@ package com.example.campus.features;
 
 import com.example.campus.entity.*;
 import com.example.campus.repository.*;
+import com.example.campus.security.TokenRevocationList;
+import com.example.campus.user.CurrentUserResolver;
+import com.example.campus.user.UserBulkImporter;
 import com.example.campus.user.User;
 import com.example.campus.user.UserRepository;
 import com.example.campus.user.Role;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
@@ -47,6 +54,30 @@ public class AdminController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+
+    @Autowired
+    private UserBulkImporter userBulkImporter;
+
+    @Autowired
+    private AttendanceWriter attendanceWriter;
+
+    @Autowired
+    private AttendanceIndex attendanceIndex;
+
+    @Autowired
+    private ReportExporter reportExporter;
+
+    @Autowired
+    private DetentionList detentionList;
+
+    @Autowired
+    private CohortRanks cohortRanks;
+
     @GetMapping("/dashboard")
     public ResponseEntity<?> dashboard(@AuthenticationPrincipal UserDetails userDetails) {
         try {
@@ -112,6 +143,13 @@ public class AdminController {
         }
     }
 
+    // CSV body of username,role,password lines; responds with NDJSON progress and per-row errors
+    @PostMapping(value = "/users/import", consumes = {"text/csv", "text/plain"})
+    public void importUsers(InputStream csv, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        userBulkImporter.importCsv(csv, response.getOutputStream());
+    }
+
     @PutMapping("/users/{userId}")
     public ResponseEntity<?> updateUser(@PathVariable Long userId, @RequestBody Map<String, Object> userData, @AuthenticationPrincipal UserDetails userDetails) {
         try {
@@ -120,6 +158,10 @@ public class AdminController {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
+            // Tokens issued under the old username/role/password must stop working
+            tokenRevocationList.revoke(user.getUsername());
+            currentUserResolver.evict(user.getUsername());
+
             if (userData.get("username") != null) {
                 user.setUsername(userData.get("username").toString());
             }
@@ -131,6 +173,7 @@ public class AdminController {
             }
 
             userRepository.save(user);
+            currentUserResolver.evict(user.getUsername());
             return ResponseEntity.ok(Map.of("message", "User updated successfully"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -146,6 +189,8 @@ public class AdminController {
             }
 
             userRepository.delete(user);
+            tokenRevocationList.revoke(user.getUsername());
+            currentUserResolver.evict(user.getUsername());
             return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -153,45 +198,133 @@ public class AdminController {
     }
 
     @GetMapping("/attendance/reports")
-    public ResponseEntity<?> getAttendanceReports(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getAttendanceReports(@RequestParam(required = false) String format,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                  @RequestParam(required = false) String department,
+                                                  @RequestParam(required = false) String semester) {
+        try {
+            return reportExporter.attendance(ReportExporter.Format.parse(format),
+                    new ReportExporter.Filter(from, to, department, semester));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/attendance/summary/rebuild")
+    public ResponseEntity<?> rebuildAttendanceSummary(@AuthenticationPrincipal UserDetails userDetails) {
         try {
-            List<Attendance> allAttendance = attendanceRepository.findAll();
-            return ResponseEntity.ok(allAttendance);
+            attendanceWriter.rebuildSummary();
+            return ResponseEntity.ok(Map.of("message", "Attendance summary rebuilt successfully"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
     }
 
-    @GetMapping("/marks/reports")
-    public ResponseEntity<?> getMarksReports(@AuthenticationPrincipal UserDetails userDetails) {
+    @GetMapping("/attendance/absent")
+    public ResponseEntity<?> getAbsentStudents(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                               @RequestParam(required = false) String subject,
+                                               @AuthenticationPrincipal UserDetails userDetails) {
         try {
-            List<Mark> allMarks = markRepository.findAll();
-            return ResponseEntity.ok(allMarks);
+            return ResponseEntity.ok(attendanceIndex.absentOn(date, subject));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
     }
 
-    @GetMapping("/fees/reports")
-    public ResponseEntity<?> getFeesReports(@AuthenticationPrincipal UserDetails userDetails) {
+    @GetMapping("/attendance/at-risk")
+    public ResponseEntity<?> getAtRiskStudents(@RequestParam(required = false) String subject,
+                                               @RequestParam(required = false) String afterSubject,
+                                               @RequestParam(required = false) Long afterStudentId,
+                                               @RequestParam(defaultValue = "50") int size,
+                                               @AuthenticationPrincipal UserDetails userDetails) {
         try {
-            List<Fee> allFees = feeRepository.findAll();
-            return ResponseEntity.ok(allFees);
+            return ResponseEntity.ok(detentionList.page(subject, afterSubject, afterStudentId, size));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
     }
 
-    @GetMapping("/assignments/reports")
-    public ResponseEntity<?> getAssignmentsReports(@AuthenticationPrincipal UserDetails userDetails) {
+    @GetMapping("/attendance/students/{studentId}/stats")
+    public ResponseEntity<?> getStudentAttendanceStats(@PathVariable Long studentId, @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            List<Map<String, Object>> stats = new ArrayList<>();
+            for (String subject : attendanceIndex.subjectsOf(studentId)) {
+                Map<String, Object> subjectStats = new HashMap<>();
+                subjectStats.put("subject", subject);
+                subjectStats.put("percentage", attendanceIndex.percentage(studentId, subject));
+                subjectStats.put("presentStreak", attendanceIndex.presentStreak(studentId, subject));
+                stats.add(subjectStats);
+            }
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/marks/reports")
+    public ResponseEntity<?> getMarksReports(@RequestParam(required = false) String format,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                             @RequestParam(required = false) String department,
+                                             @RequestParam(required = false) String semester) {
+        try {
+            return reportExporter.marks(ReportExporter.Format.parse(format),
+                    new ReportExporter.Filter(from, to, department, semester));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/ranks/top")
+    public ResponseEntity<?> getTopRanked(@RequestParam String department,
+                                          @RequestParam String semester,
+                                          @RequestParam(defaultValue = "10") int n,
+                                          @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            return ResponseEntity.ok(cohortRanks.top(department, semester, Math.max(1, Math.min(n, 1000))));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/ranks/students/{studentId}")
+    public ResponseEntity<?> getStudentRank(@PathVariable Long studentId,
+                                            @RequestParam(required = false) String semester,
+                                            @AuthenticationPrincipal UserDetails userDetails) {
         try {
-            List<Assignment> allAssignments = assignmentRepository.findAll();
-            return ResponseEntity.ok(allAssignments);
+            return ResponseEntity.ok(cohortRanks.rankOf(studentId, semester));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
     }
 
+    @GetMapping("/fees/reports")
+    public ResponseEntity<?> getFeesReports(@RequestParam(required = false) String format,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return reportExporter.fees(ReportExporter.Format.parse(format),
+                    new ReportExporter.Filter(from, to, null, null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/assignments/reports")
+    public ResponseEntity<?> getAssignmentsReports(@RequestParam(required = false) String format,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                   @RequestParam(required = false) String department,
+                                                   @RequestParam(required = false) String semester) {
+        try {
+            return reportExporter.assignments(ReportExporter.Format.parse(format),
+                    new ReportExporter.Filter(from, to, department, semester));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/feedback")
     public ResponseEntity<?> getAllFeedback(@AuthenticationPrincipal UserDetails userDetails) {
         try {
@@ -282,7 +415,6 @@ public class AdminController {
         }
     }
 
-
     @PostMapping("/fees")
     public ResponseEntity<?> createFee(@RequestBody Map<String, Object> feeData, @AuthenticationPrincipal UserDetails userDetails) {
         try {
@@ -305,10 +437,8 @@ public class AdminController {
             Map<String, Object> analytics = new HashMap<>();
 
             // Attendance analytics
-            long totalAttendanceRecords = attendanceRepository.count();
-            long presentCount = attendanceRepository.findAll().stream()
-                    .filter(a -> a.getStatus() == Attendance.AttendanceStatus.PRESENT)
-                    .count();
+            long totalAttendanceRecords = attendanceIndex.getTotalMarked();
+            long presentCount = attendanceIndex.getTotalPresent();
 
             // Marks analytics
             List<Mark> allMarks = markRepository.findAll();
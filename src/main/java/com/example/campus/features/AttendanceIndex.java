@@ -0,0 +1,264 @@
+package com.example.campus.features;
+
+import com.example.campus.entity.Attendance;
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory attendance index: for every (student, subject) two day bitmaps, one for days
+ * with a record and one for days marked PRESENT. Loaded from the attendance table at
+ * startup and kept current by {@link AttendanceWriter} after each commit, so analytics
+ * never have to load attendance entities. Every change is also passed on to the
+ * {@link DetentionList}.
+ */
+@Component
+public class AttendanceIndex {
+
+    private final DataSource dataSource;
+    private final DetentionList detentionList;
+
+    // Subjects are interned to small ints so a (student, subject) pair packs into one long
+    private final Map<String, Integer> subjectIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSubjectId = new AtomicInteger();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Secondary views over the same entries, so per-student and per-subject reads skip everyone else
+    private final Map<Long, Set<String>> subjectsByStudent = new ConcurrentHashMap<>();
+    private final Map<String, Set<Entry>> entriesBySubject = new ConcurrentHashMap<>();
+
+    private final AtomicLong totalMarked = new AtomicLong();
+    private final AtomicLong totalPresent = new AtomicLong();
+
+    public AttendanceIndex(DataSource dataSource, DetentionList detentionList) {
+        this.dataSource = dataSource;
+        this.detentionList = detentionList;
+    }
+
+    @PostConstruct
+    void load() {
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(Integer.MIN_VALUE); // MySQL: stream rows instead of buffering the result
+        streaming.query("SELECT student_id, subject, date, status FROM attendance", rs -> {
+            apply(rs.getLong("student_id"), rs.getString("subject"), rs.getDate("date").toLocalDate(),
+                    Attendance.AttendanceStatus.valueOf(rs.getString("status")));
+        });
+    }
+
+    public void record(Long studentId, String subject, LocalDate date, Attendance.AttendanceStatus status) {
+        // Only live changes notify; loading at startup just rebuilds the list
+        if (apply(studentId, subject, date, status)) {
+            detentionList.notifyStudent(studentId, subject);
+        }
+    }
+
+    // Returns true when the change moved the student below the detention threshold
+    private boolean apply(Long studentId, String subject, LocalDate date, Attendance.AttendanceStatus status) {
+        Entry entry = entries.computeIfAbsent(key(studentId, subjectId(subject)), k -> {
+            Entry created = new Entry(studentId, subject);
+            subjectsByStudent.computeIfAbsent(studentId, id -> ConcurrentHashMap.newKeySet()).add(subject);
+            entriesBySubject.computeIfAbsent(subject, name -> ConcurrentHashMap.newKeySet()).add(created);
+            return created;
+        });
+        int day = (int) date.toEpochDay();
+        boolean present = status == Attendance.AttendanceStatus.PRESENT;
+        synchronized (entry) {
+            if (!entry.marked.get(day)) {
+                entry.marked.set(day);
+                totalMarked.incrementAndGet();
+            }
+            if (present != entry.present.get(day)) {
+                if (present) {
+                    entry.present.set(day);
+                    totalPresent.incrementAndGet();
+                } else {
+                    entry.present.clear(day);
+                    totalPresent.decrementAndGet();
+                }
+            }
+            return detentionList.update(studentId, subject, entry.present.cardinality(), entry.marked.cardinality());
+        }
+    }
+
+    public long getTotalMarked() {
+        return totalMarked.get();
+    }
+
+    public long getTotalPresent() {
+        return totalPresent.get();
+    }
+
+    public double percentage(Long studentId, String subject) {
+        Entry entry = find(studentId, subject);
+        if (entry == null) {
+            return 0.0;
+        }
+        synchronized (entry) {
+            int total = entry.marked.cardinality();
+            return total > 0 ? Math.round(entry.present.cardinality() * 10000.0 / total) / 100.0 : 0.0;
+        }
+    }
+
+    /**
+     * Number of consecutive classes, counting back from the latest one, the student attended.
+     */
+    public int presentStreak(Long studentId, String subject) {
+        Entry entry = find(studentId, subject);
+        if (entry == null) {
+            return 0;
+        }
+        synchronized (entry) {
+            int streak = 0;
+            for (int day = entry.marked.last(); day != DayBitmap.NONE; day = entry.marked.previous(day - 1)) {
+                if (!entry.present.get(day)) {
+                    break;
+                }
+                streak++;
+            }
+            return streak;
+        }
+    }
+
+    /**
+     * Students with a non-PRESENT record on the given date, optionally for one subject only.
+     */
+    public List<Map<String, Object>> absentOn(LocalDate date, String subject) {
+        int day = (int) date.toEpochDay();
+        List<Map<String, Object>> absent = new ArrayList<>();
+        if (subject != null) {
+            collectAbsent(entriesBySubject.getOrDefault(subject, Set.of()), day, absent);
+        } else {
+            for (Set<Entry> subjectEntries : entriesBySubject.values()) {
+                collectAbsent(subjectEntries, day, absent);
+            }
+        }
+        return absent;
+    }
+
+    private static void collectAbsent(Set<Entry> subjectEntries, int day, List<Map<String, Object>> absent) {
+        for (Entry entry : subjectEntries) {
+            boolean isAbsent;
+            synchronized (entry) {
+                isAbsent = entry.marked.get(day) && !entry.present.get(day);
+            }
+            if (isAbsent) {
+                absent.add(Map.of("studentId", entry.studentId, "subject", entry.subject));
+            }
+        }
+    }
+
+    public List<String> subjectsOf(Long studentId) {
+        return List.copyOf(subjectsByStudent.getOrDefault(studentId, Set.of()));
+    }
+
+    private Entry find(Long studentId, String subject) {
+        Integer id = subjectIds.get(subject);
+        return id != null ? entries.get(key(studentId, id)) : null;
+    }
+
+    private int subjectId(String subject) {
+        return subjectIds.computeIfAbsent(subject, s -> nextSubjectId.getAndIncrement());
+    }
+
+    private static long key(long studentId, int subjectId) {
+        return (studentId << 20) | subjectId;
+    }
+
+    private static final class Entry {
+        final Long studentId;
+        final String subject;
+        final DayBitmap marked = new DayBitmap();
+        final DayBitmap present = new DayBitmap();
+
+        Entry(Long studentId, String subject) {
+            this.studentId = studentId;
+            this.subject = subject;
+        }
+    }
+
+    /**
+     * Bitmap over epoch days backed by a long[] that only spans the days actually used,
+     * so an academic year of one student in one subject costs a handful of words.
+     */
+    static final class DayBitmap {
+        static final int NONE = Integer.MIN_VALUE;
+
+        private int firstWord;
+        private long[] words = new long[0];
+
+        boolean get(int day) {
+            int index = (day >> 6) - firstWord;
+            return index >= 0 && index < words.length && (words[index] & (1L << day)) != 0;
+        }
+
+        void set(int day) {
+            int word = day >> 6;
+            ensureCovers(word);
+            words[word - firstWord] |= 1L << day;
+        }
+
+        void clear(int day) {
+            int index = (day >> 6) - firstWord;
+            if (index >= 0 && index < words.length) {
+                words[index] &= ~(1L << day);
+            }
+        }
+
+        int cardinality() {
+            int count = 0;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        int last() {
+            return previous(((firstWord + words.length) << 6) - 1);
+        }
+
+        // Highest set day <= from, or NONE
+        int previous(int from) {
+            int index = (from >> 6) - firstWord;
+            if (index >= words.length) {
+                index = words.length - 1;
+                from = ((firstWord + index) << 6) + 63;
+            }
+            if (index < 0) {
+                return NONE;
+            }
+            long word = words[index] & (-1L >>> (63 - (from & 63)));
+            while (true) {
+                if (word != 0) {
+                    return ((firstWord + index) << 6) + 63 - Long.numberOfLeadingZeros(word);
+                }
+                if (--index < 0) {
+                    return NONE;
+                }
+                word = words[index];
+            }
+        }
+
+        private void ensureCovers(int word) {
+            if (words.length == 0) {
+                firstWord = word;
+                words = new long[1];
+            } else if (word < firstWord) {
+                long[] grown = new long[words.length + (firstWord - word)];
+                System.arraycopy(words, 0, grown, firstWord - word, words.length);
+                words = grown;
+                firstWord = word;
+            } else if (word >= firstWord + words.length) {
+                words = Arrays.copyOf(words, word - firstWord + 1);
+            }
+        }
+    }
+}
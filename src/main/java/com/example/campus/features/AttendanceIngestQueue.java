@@ -0,0 +1,372 @@
+package com.example.campus.features;
+
+import com.example.campus.entity.Attendance;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolationException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Optional write-behind path for attendance marking (app.attendance.write-behind.enabled).
+ * Requests are appended to a local journal and a bounded queue, then acknowledged; one
+ * writer thread drains the queue through {@link AttendanceWriter} in group commits of up
+ * to max-batch rows or every flush-interval-ms. A group that fails for any reason other
+ * than bad data (database down, lock timeout) is kept and retried with backoff; only rows
+ * the database rejects as invalid are dropped. Journal segments are deleted once every
+ * entry in them has been committed or dropped, and replayed on startup otherwise. Replaying
+ * an entry twice is harmless because attendance writes are upserts.
+ */
+@Component
+public class AttendanceIngestQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendanceIngestQueue.class);
+
+    private static final long INITIAL_BACKOFF_MS = 100;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private record Pending(Attendance attendance, long segment) {}
+
+    private final AttendanceWriter attendanceWriter;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.attendance.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.attendance.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${app.attendance.write-behind.max-batch:500}")
+    private int maxBatch;
+
+    @Value("${app.attendance.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${app.attendance.write-behind.journal-dir:data/attendance-journal}")
+    private String journalDir;
+
+    @Value("${app.attendance.write-behind.segment-bytes:4194304}")
+    private long segmentBytes;
+
+    private BlockingQueue<Pending> queue;
+    private final ReentrantLock journalLock = new ReentrantLock();
+    private Path directory;
+    private long currentSegment;
+    private FileChannel journal;
+    // Entries per segment not yet committed or dropped; guarded by journalLock
+    private final Map<Long, Integer> outstanding = new HashMap<>();
+    private Timer flushTimer;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    public AttendanceIngestQueue(AttendanceWriter attendanceWriter, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.attendanceWriter = attendanceWriter;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(capacity);
+        directory = Paths.get(journalDir);
+        Files.createDirectories(directory);
+        currentSegment = replay() + 1;
+        journal = openSegment(currentSegment);
+
+        flushTimer = Timer.builder("attendance.writebehind.flush")
+                .description("Time to commit one write-behind group")
+                .register(meterRegistry);
+        Gauge.builder("attendance.writebehind.queue.depth", queue, BlockingQueue::size)
+                .description("Attendance rows acknowledged but not yet committed")
+                .register(meterRegistry);
+
+        running = true;
+        writerThread = new Thread(this::drainLoop, "attendance-write-behind");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Journals and queues the records. Returns false, without journaling anything, when the
+     * queue does not have room for all of them.
+     */
+    public boolean enqueue(List<Attendance> records) throws IOException {
+        journalLock.lock();
+        try {
+            if (queue.remainingCapacity() < records.size()) {
+                return false;
+            }
+            if (journal.size() >= segmentBytes) {
+                rotate();
+            }
+            StringBuilder lines = new StringBuilder();
+            for (Attendance attendance : records) {
+                lines.append(objectMapper.writeValueAsString(toJournalEntry(attendance))).append('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+            journal.force(false);
+            for (Attendance attendance : records) {
+                queue.add(new Pending(attendance, currentSegment));
+            }
+            outstanding.merge(currentSegment, records.size(), Integer::sum);
+            return true;
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private void drainLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Give the group up to one interval to fill before committing it
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || !running || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+                settle(batch);
+                batch.clear();
+                releaseCommittedSegments();
+            } catch (InterruptedException e) {
+                // Whatever is still queued or in the batch stays journaled and is replayed on startup
+                return;
+            } catch (IOException e) {
+                log.error("Attendance write-behind could not release journal segments", e);
+            }
+        }
+    }
+
+    /**
+     * Commits the group, retrying with backoff until every row is either committed or
+     * rejected by the database as invalid.
+     */
+    private void flush(List<Pending> batch) throws InterruptedException {
+        List<Attendance> records = new ArrayList<>(batch.size());
+        batch.forEach(pending -> records.add(pending.attendance()));
+        long backoffMs = INITIAL_BACKOFF_MS;
+        while (true) {
+            try {
+                flushTimer.record(() -> writeGroup(records));
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Attendance write-behind flush of {} rows failed, retrying in {} ms", records.size(), backoffMs, e);
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    // Removes rows from the list as they are committed or dropped; rethrows anything transient
+    private void writeGroup(List<Attendance> records) {
+        try {
+            attendanceWriter.saveAll(records);
+            records.clear();
+        } catch (RuntimeException groupFailure) {
+            if (!isDataError(groupFailure)) {
+                throw groupFailure;
+            }
+            // One bad row must not hold back the rest of the group
+            for (Iterator<Attendance> it = records.iterator(); it.hasNext(); ) {
+                Attendance attendance = it.next();
+                try {
+                    attendanceWriter.save(attendance);
+                } catch (RuntimeException rowFailure) {
+                    if (!isDataError(rowFailure)) {
+                        throw rowFailure;
+                    }
+                    log.error("Dropping invalid attendance for student {} in {} on {}",
+                            attendance.getStudentId(), attendance.getSubject(), attendance.getDate(), rowFailure);
+                }
+                it.remove();
+            }
+        }
+    }
+
+    private static boolean isDataError(RuntimeException e) {
+        return e instanceof DataIntegrityViolationException || e instanceof ConstraintViolationException;
+    }
+
+    private void settle(List<Pending> batch) {
+        journalLock.lock();
+        try {
+            for (Pending pending : batch) {
+                outstanding.computeIfPresent(pending.segment(), (segment, count) -> count > 1 ? count - 1 : null);
+            }
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    // Deletes closed segments whose entries have all been committed or dropped
+    private void releaseCommittedSegments() throws IOException {
+        long current;
+        journalLock.lock();
+        try {
+            if (!outstanding.containsKey(currentSegment)) {
+                rotate();
+            }
+            current = currentSegment;
+        } finally {
+            journalLock.unlock();
+        }
+        for (Path segment : segments()) {
+            long number = segmentNumber(segment);
+            boolean settled;
+            journalLock.lock();
+            try {
+                settled = !outstanding.containsKey(number);
+            } finally {
+                journalLock.unlock();
+            }
+            if (number < current && settled) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    private void rotate() throws IOException {
+        if (journal.size() == 0) {
+            return;
+        }
+        journal.close();
+        currentSegment++;
+        journal = openSegment(currentSegment);
+    }
+
+    // Commits whatever a previous run acknowledged but never flushed; returns the last segment number.
+    // Invalid rows are dropped as in a live flush; a transient failure fails startup and keeps the segment.
+    private long replay() throws IOException {
+        long last = 0;
+        for (Path segment : segments()) {
+            List<Attendance> records = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        try {
+                            records.add(fromJournalEntry(objectMapper.readValue(line, Map.class)));
+                        } catch (IOException | RuntimeException e) {
+                            // A torn last line from a crash mid-append was never acknowledged
+                        }
+                    }
+                    if (records.size() >= maxBatch) {
+                        writeGroup(records);
+                    }
+                }
+            }
+            if (!records.isEmpty()) {
+                writeGroup(records);
+            }
+            last = Math.max(last, segmentNumber(segment));
+            Files.delete(segment);
+        }
+        return last;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".journal"))
+                    .sorted((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)))
+                    .toList();
+        }
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        return FileChannel.open(directory.resolve(String.format("attendance-%012d.journal", number)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("attendance-".length(), name.length() - ".journal".length()));
+    }
+
+    private static Map<String, Object> toJournalEntry(Attendance attendance) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("studentId", attendance.getStudentId());
+        entry.put("subject", attendance.getSubject());
+        entry.put("date", attendance.getDate().toString());
+        entry.put("status", attendance.getStatus().name());
+        entry.put("markedBy", attendance.getMarkedBy());
+        return entry;
+    }
+
+    private static Attendance fromJournalEntry(Map<?, ?> entry) {
+        Attendance attendance = new Attendance();
+        attendance.setStudentId(Long.valueOf(entry.get("studentId").toString()));
+        attendance.setSubject(entry.get("subject").toString());
+        attendance.setDate(LocalDate.parse(entry.get("date").toString()));
+        attendance.setStatus(Attendance.AttendanceStatus.valueOf(entry.get("status").toString()));
+        attendance.setMarkedBy(entry.get("markedBy") != null ? entry.get("markedBy").toString() : null);
+        return attendance;
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        if (writerThread.isAlive()) {
+            // Stuck retrying against an unavailable database; the journal keeps the rows for replay
+            writerThread.interrupt();
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        journal.close();
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.campus.features;
+
+import com.example.campus.entity.Attendance;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Single write path for attendance records. Writes are upserts keyed on
+ * (student_id, subject, date), so a retried or re-submitted request updates the status
+ * instead of adding another row. A bulk request runs in one transaction and is sent as
+ * JDBC batches of hibernate.jdbc.batch_size rows. attendance_summary is adjusted in the
+ * same transaction.
+ */
+@Component
+public class AttendanceWriter {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO attendance (id, student_id, subject, date, status, marked_by, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE status = VALUES(status), marked_by = VALUES(marked_by), updated_at = VALUES(updated_at)";
+
+    private static final String SUMMARY_SQL =
+            "INSERT INTO attendance_summary (student_id, subject, present, total) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE present = present + VALUES(present), total = total + VALUES(total)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AttendanceIndex attendanceIndex;
+    private final Timer bulkTimer;
+    private final Counter rowsWritten;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    // EntityManagerFactory is injected so the schema (and attendance_seq) exists before init()
+    public AttendanceWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            AttendanceIndex attendanceIndex, MeterRegistry meterRegistry,
+                            EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.attendanceIndex = attendanceIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bulkTimer = Timer.builder("attendance.bulk.write")
+                .description("Time to write one bulk attendance request")
+                .register(meterRegistry);
+        this.rowsWritten = Counter.builder("attendance.rows.written")
+                .description("Attendance rows written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        alignSequence();
+        // Backfill the summary the first time it is deployed against existing attendance data
+        Long summaryRows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendance_summary", Long.class);
+        if (summaryRows == 0) {
+            transactionTemplate.executeWithoutResult(status -> rebuildSummary());
+        }
+    }
+
+    /**
+     * Attendance ids used to come from AUTO_INCREMENT. Move the sequence past the existing
+     * rows once, so the first pooled block cannot reuse an id. When the sequence is already
+     * ahead of the data this is a no-op, so it is safe with other instances running.
+     */
+    private void alignSequence() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM attendance", Long.class);
+        long allocation = Attendance.ID_ALLOCATION_SIZE;
+        jdbcTemplate.update("UPDATE attendance_seq SET next_val = ? WHERE next_val <= ?",
+                maxId + 1 + allocation, maxId + allocation);
+    }
+
+    @Transactional
+    public void save(Attendance attendance) {
+        saveAll(List.of(attendance));
+    }
+
+    @Transactional
+    public int saveAll(List<Attendance> records) {
+        return bulkTimer.record(() -> {
+            // Last entry wins when the same student appears twice in one request
+            Map<Key, Attendance> unique = new LinkedHashMap<>();
+            for (Attendance attendance : records) {
+                unique.put(Key.of(attendance), attendance);
+            }
+            Map<Key, Attendance.AttendanceStatus> previous = lockExisting(unique.values());
+            upsert(unique.values());
+            updateSummary(unique, previous);
+            afterCommit(() -> unique.values().forEach(a ->
+                    attendanceIndex.record(a.getStudentId(), a.getSubject(), a.getDate(), a.getStatus())));
+            rowsWritten.increment(unique.size());
+            return unique.size();
+        });
+    }
+
+    /**
+     * Rebuilds attendance_summary from the attendance table. Used to backfill the summary
+     * and to repair it after data was changed outside this class.
+     */
+    @Transactional
+    public void rebuildSummary() {
+        jdbcTemplate.update("DELETE FROM attendance_summary");
+        jdbcTemplate.update("INSERT INTO attendance_summary (student_id, subject, present, total) " +
+                "SELECT student_id, subject, SUM(CASE WHEN status = 'PRESENT' THEN 1 ELSE 0 END), COUNT(*) " +
+                "FROM attendance GROUP BY student_id, subject");
+    }
+
+    // Current status of rows about to be overwritten, locked so concurrent writers of the
+    // same class and date apply their summary deltas one after the other
+    private Map<Key, Attendance.AttendanceStatus> lockExisting(Collection<Attendance> records) {
+        Map<String, List<Attendance>> byClass = new LinkedHashMap<>();
+        for (Attendance attendance : records) {
+            byClass.computeIfAbsent(attendance.getSubject() + "|" + attendance.getDate(), k -> new ArrayList<>()).add(attendance);
+        }
+
+        Map<Key, Attendance.AttendanceStatus> existing = new HashMap<>();
+        for (List<Attendance> group : byClass.values()) {
+            String subject = group.get(0).getSubject();
+            LocalDate date = group.get(0).getDate();
+            for (int from = 0; from < group.size(); from += batchSize) {
+                List<Attendance> chunk = group.subList(from, Math.min(from + batchSize, group.size()));
+                String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                List<Object> args = new ArrayList<>(chunk.size() + 2);
+                args.add(subject);
+                args.add(Date.valueOf(date));
+                chunk.forEach(a -> args.add(a.getStudentId()));
+                jdbcTemplate.query("SELECT student_id, status FROM attendance WHERE subject = ? AND date = ? " +
+                                "AND student_id IN (" + placeholders + ") FOR UPDATE",
+                        rs -> {
+                            existing.put(new Key(rs.getLong("student_id"), subject, date),
+                                    Attendance.AttendanceStatus.valueOf(rs.getString("status")));
+                        },
+                        args.toArray());
+            }
+        }
+        return existing;
+    }
+
+    private void upsert(Collection<Attendance> records) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator idGenerator = (BeforeExecutionGenerator) session.getFactory()
+                .getMappingMetamodel()
+                .getEntityDescriptor(Attendance.class)
+                .getGenerator();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> params = new ArrayList<>(records.size());
+        for (Attendance attendance : records) {
+            // Ids come from the same pooled sequence Hibernate uses; a row that turns out
+            // to be a duplicate just leaves a gap
+            Object id = idGenerator.generate(session, attendance, null, EventType.INSERT);
+            params.add(new Object[] {
+                    id,
+                    attendance.getStudentId(),
+                    attendance.getSubject(),
+                    Date.valueOf(attendance.getDate()),
+                    attendance.getStatus().name(),
+                    attendance.getMarkedBy(),
+                    now,
+                    now
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, params, batchSize, (ps, row) -> {
+            for (int i = 0; i < row.length; i++) {
+                ps.setObject(i + 1, row[i]);
+            }
+        });
+    }
+
+    private void updateSummary(Map<Key, Attendance> records, Map<Key, Attendance.AttendanceStatus> previous) {
+        List<Object[]> params = new ArrayList<>();
+        for (Map.Entry<Key, Attendance> entry : records.entrySet()) {
+            Attendance.AttendanceStatus before = previous.get(entry.getKey());
+            Attendance.AttendanceStatus after = entry.getValue().getStatus();
+            int totalDelta = before == null ? 1 : 0;
+            int presentDelta = isPresent(after) - isPresent(before);
+            if (totalDelta != 0 || presentDelta != 0) {
+                Attendance attendance = entry.getValue();
+                params.add(new Object[] { attendance.getStudentId(), attendance.getSubject(), presentDelta, totalDelta });
+            }
+        }
+        if (!params.isEmpty()) {
+            jdbcTemplate.batchUpdate(SUMMARY_SQL, params);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static int isPresent(Attendance.AttendanceStatus status) {
+        return status == Attendance.AttendanceStatus.PRESENT ? 1 : 0;
+    }
+
+    private record Key(Long studentId, String subject, LocalDate date) {
+        static Key of(Attendance attendance) {
+            return new Key(attendance.getStudentId(), attendance.getSubject(), attendance.getDate());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.campus.features;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Class rank by SGPA per (department, semester). Each cohort keeps a Fenwick tree of
+ * student counts over SGPA buckets of 0.01, so a student's rank is a logarithmic prefix
+ * sum and top-N walks down from the highest bucket. {@link GpaEngine} pushes every
+ * recomputed SGPA here.
+ */
+@Component
+public class CohortRanks {
+
+    // SGPA 0.00 - 10.00 in steps of 0.01
+    private static final int BUCKETS = 1001;
+
+    public static final String UNASSIGNED = "Unassigned";
+
+    private record CohortKey(String department, String semester) {}
+
+    private record Placement(CohortKey cohort, int bucket) {}
+
+    private final Map<CohortKey, Cohort> cohorts = new ConcurrentHashMap<>();
+    private final Map<Long, Map<String, Placement>> placements = new ConcurrentHashMap<>();
+
+    /**
+     * Places the student in the cohort of each semester they have an SGPA for, and takes
+     * them out of cohorts they no longer belong to.
+     */
+    void update(Long studentId, String department, Map<String, Double> sgpa) {
+        String dept = department != null ? department : UNASSIGNED;
+        Map<String, Placement> current = placements.computeIfAbsent(studentId, id -> new HashMap<>());
+        synchronized (current) {
+            for (Map.Entry<String, Placement> entry : Map.copyOf(current).entrySet()) {
+                Double score = sgpa.get(entry.getKey());
+                Placement placement = entry.getValue();
+                if (score == null || !placement.cohort().department().equals(dept) || placement.bucket() != bucket(score)) {
+                    cohorts.get(placement.cohort()).remove(studentId, placement.bucket());
+                    current.remove(entry.getKey());
+                }
+            }
+            for (Map.Entry<String, Double> semester : sgpa.entrySet()) {
+                if (!current.containsKey(semester.getKey())) {
+                    CohortKey key = new CohortKey(dept, semester.getKey());
+                    int bucket = bucket(semester.getValue());
+                    cohorts.computeIfAbsent(key, k -> new Cohort()).add(studentId, bucket);
+                    current.put(semester.getKey(), new Placement(key, bucket));
+                }
+            }
+        }
+    }
+
+    /**
+     * The student's standing in each semester cohort, or only the given semester.
+     */
+    public List<Map<String, Object>> rankOf(Long studentId, String semester) {
+        Map<String, Placement> current = placements.getOrDefault(studentId, Map.of());
+        List<Map<String, Object>> ranks = new ArrayList<>();
+        synchronized (current) {
+            for (Map.Entry<String, Placement> entry : current.entrySet()) {
+                if (semester != null && !semester.equals(entry.getKey())) {
+                    continue;
+                }
+                Placement placement = entry.getValue();
+                Cohort cohort = cohorts.get(placement.cohort());
+                Map<String, Object> rank = new LinkedHashMap<>();
+                rank.put("department", placement.cohort().department());
+                rank.put("semester", placement.cohort().semester());
+                rank.put("sgpa", placement.bucket() / 100.0);
+                rank.put("rank", cohort.rankOf(placement.bucket()));
+                rank.put("cohortSize", cohort.size());
+                ranks.add(rank);
+            }
+        }
+        return ranks;
+    }
+
+    public List<Map<String, Object>> top(String department, String semester, int n) {
+        Cohort cohort = cohorts.get(new CohortKey(department, semester));
+        return cohort != null ? cohort.top(n) : List.of();
+    }
+
+    private static int bucket(double sgpa) {
+        return (int) Math.round(Math.max(0, Math.min(10, sgpa)) * 100);
+    }
+
+    private static final class Cohort {
+        // Fenwick tree indexed from the top bucket down, so prefix sums count higher scores
+        private final int[] tree = new int[BUCKETS + 1];
+        private final List<Set<Long>> students = new ArrayList<>(BUCKETS);
+        private int size;
+
+        Cohort() {
+            for (int i = 0; i < BUCKETS; i++) {
+                students.add(null);
+            }
+        }
+
+        synchronized void add(Long studentId, int bucket) {
+            Set<Long> inBucket = students.get(bucket);
+            if (inBucket == null) {
+                inBucket = new LinkedHashSet<>();
+                students.set(bucket, inBucket);
+            }
+            if (inBucket.add(studentId)) {
+                change(bucket, 1);
+            }
+        }
+
+        synchronized void remove(Long studentId, int bucket) {
+            Set<Long> inBucket = students.get(bucket);
+            if (inBucket != null && inBucket.remove(studentId)) {
+                change(bucket, -1);
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        // Competition ranking: one more than the number of students with a higher SGPA
+        synchronized int rankOf(int bucket) {
+            return countAbove(bucket) + 1;
+        }
+
+        synchronized List<Map<String, Object>> top(int n) {
+            List<Map<String, Object>> top = new ArrayList<>(Math.min(n, size));
+            for (int bucket = BUCKETS - 1; bucket >= 0 && top.size() < n; bucket--) {
+                Set<Long> inBucket = students.get(bucket);
+                if (inBucket == null || inBucket.isEmpty()) {
+                    continue;
+                }
+                int rank = countAbove(bucket) + 1;
+                for (Long studentId : inBucket) {
+                    if (top.size() >= n) {
+                        break;
+                    }
+                    top.add(Map.of("studentId", studentId, "sgpa", bucket / 100.0, "rank", rank));
+                }
+            }
+            return top;
+        }
+
+        private void change(int bucket, int delta) {
+            size += delta;
+            for (int i = BUCKETS - bucket; i <= BUCKETS; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        private int countAbove(int bucket) {
+            int count = 0;
+            for (int i = BUCKETS - bucket - 1; i > 0; i -= i & -i) {
+                count += tree[i];
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.campus.features;
+
+import com.example.campus.entity.Assignment;
+import com.example.campus.repository.AssignmentRepository;
+import com.example.campus.repository.AssignmentSubmissionRepository;
+import com.example.campus.user.Role;
+import com.example.campus.user.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reminds students who have not submitted an assignment at fixed offsets before it is due.
+ * Reminders sit in a {@link TimerWheel} ticking once a minute, loaded from upcoming
+ * assignments at startup and rescheduled whenever an assignment is created or edited, so
+ * nothing polls the database. Rescheduling gives the assignment a new version and reminders
+ * carrying an older version are dropped when they fire; the version is forgotten once the
+ * assignment's last reminder has fired. An assignment is due at the end of its due date.
+ * Each notification is addressed to one student and only shows in that student's feed.
+ */
+@Component
+public class DeadlineReminders {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineReminders.class);
+
+    private static final String INSERT_SQL = "INSERT INTO notifications (title, message, created_by, target_role, " +
+            "target_user_id, is_read, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private record Reminder(Long assignmentId, int version, long offsetHours, boolean last) {}
+
+    private final AssignmentRepository assignmentRepository;
+    private final AssignmentSubmissionRepository submissionRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    // Versions come from one counter, so a dropped entry can never be revived by a later schedule
+    private final AtomicInteger nextVersion = new AtomicInteger();
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+    private final TimerWheel<Reminder> wheel = new TimerWheel<>(currentMinute());
+    private ScheduledExecutorService ticker;
+
+    @Value("${app.reminders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.reminders.offsets-hours:48,24,2}")
+    private long[] offsetsHours;
+
+    public DeadlineReminders(AssignmentRepository assignmentRepository,
+                             AssignmentSubmissionRepository submissionRepository,
+                             UserRepository userRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager) {
+        this.assignmentRepository = assignmentRepository;
+        this.submissionRepository = submissionRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        for (Assignment assignment : assignmentRepository.findUpcomingAssignments(LocalDate.now().minusDays(1))) {
+            schedule(assignment);
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "assignment-reminders");
+            t.setDaemon(true);
+            return t;
+        });
+        long untilNextMinute = TimeUnit.MINUTES.toMillis(1) - System.currentTimeMillis() % TimeUnit.MINUTES.toMillis(1);
+        ticker.scheduleAtFixedRate(this::tick, untilNextMinute, TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * (Re)schedules the assignment's reminders, replacing any scheduled before. Offsets that
+     * have already passed are skipped.
+     */
+    public void schedule(Assignment assignment) {
+        if (!enabled || assignment.getId() == null) {
+            return;
+        }
+        Long assignmentId = assignment.getId();
+        int version = nextVersion.incrementAndGet();
+        versions.put(assignmentId, version);
+
+        List<Long> offsets = new ArrayList<>();
+        if (assignment.getDueDate() != null) {
+            long due = assignment.getDueDate().plusDays(1).atStartOfDay(ZoneId.systemDefault()).toEpochSecond() / 60;
+            long now = currentMinute();
+            for (long offset : offsetsHours) {
+                if (due - TimeUnit.HOURS.toMinutes(offset) > now) {
+                    offsets.add(offset);
+                }
+            }
+            // The smallest offset fires last, so its reminder carries the flag that clears the version
+            offsets.sort(null);
+            for (int i = 0; i < offsets.size(); i++) {
+                long offset = offsets.get(i);
+                wheel.schedule(due - TimeUnit.HOURS.toMinutes(offset), new Reminder(assignmentId, version, offset, i == 0));
+            }
+        }
+        if (offsets.isEmpty()) {
+            versions.remove(assignmentId, version);
+        }
+    }
+
+    private void tick() {
+        List<Reminder> due = new ArrayList<>();
+        wheel.advanceTo(currentMinute(), due::add);
+        for (Reminder reminder : due) {
+            try {
+                send(reminder);
+            } catch (RuntimeException e) {
+                log.error("Assignment reminder failed for assignment {}", reminder.assignmentId(), e);
+            }
+        }
+    }
+
+    private void send(Reminder reminder) {
+        Integer version = versions.get(reminder.assignmentId());
+        if (version == null || version != reminder.version()) {
+            return; // Rescheduled since this reminder was queued
+        }
+        if (reminder.last()) {
+            versions.remove(reminder.assignmentId(), version);
+        }
+        Assignment assignment = assignmentRepository.findById(reminder.assignmentId()).orElse(null);
+        if (assignment == null) {
+            versions.remove(reminder.assignmentId());
+            return;
+        }
+
+        Set<Long> submitted = new HashSet<>(submissionRepository.findStudentIdsByAssignmentId(assignment.getId()));
+        String title = "Assignment due in " + reminder.offsetHours() + (reminder.offsetHours() == 1 ? " hour" : " hours");
+        String message = String.format("\"%s\" (%s) is due on %s and you have not submitted it yet.",
+                assignment.getTitle(), assignment.getSubject(), assignment.getDueDate());
+        Date today = Date.valueOf(LocalDate.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (Long studentId : userRepository.findIdsByRole(Role.STUDENT)) {
+            if (!submitted.contains(studentId)) {
+                rows.add(new Object[] { title, message, "system", "STUDENT", studentId, false, today, today });
+            }
+        }
+        if (!rows.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+        }
+    }
+
+    // Wheel ticks are epoch minutes
+    private static long currentMinute() {
+        return TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+    }
+}
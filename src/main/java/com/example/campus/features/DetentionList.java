@@ -0,0 +1,147 @@
+package com.example.campus.features;
+
+import com.example.campus.entity.Notification;
+import com.example.campus.repository.NotificationRepository;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Students whose attendance in a subject is below the detention threshold, kept sorted by
+ * (subject, studentId). {@link AttendanceIndex} moves a student in or out whenever one of
+ * their records changes, so reading a page is a seek plus the page itself rather than a
+ * scan of all attendance.
+ */
+@Component
+public class DetentionList {
+
+    private static final Logger log = LoggerFactory.getLogger(DetentionList.class);
+
+    private record Key(String subject, long studentId) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int bySubject = subject.compareTo(other.subject);
+            return bySubject != 0 ? bySubject : Long.compare(studentId, other.studentId);
+        }
+    }
+
+    public record Standing(Long studentId, String subject, int present, int total) {
+        public double getPercentage() {
+            return total > 0 ? Math.round(present * 10000.0 / total) / 100.0 : 0.0;
+        }
+    }
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate notificationTransaction;
+
+    private final NavigableMap<Key, Standing> atRisk = new ConcurrentSkipListMap<>();
+    private final Map<String, AtomicInteger> countsBySubject = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Value("${app.attendance.detention.threshold:75}")
+    private double threshold;
+
+    // Too few sessions say nothing about a student; one early absence is 0%
+    @Value("${app.attendance.detention.min-sessions:5}")
+    private int minSessions;
+
+    @Value("${app.attendance.detention.notify:true}")
+    private boolean notifyStudents;
+
+    public DetentionList(NotificationRepository notificationRepository, PlatformTransactionManager transactionManager) {
+        this.notificationRepository = notificationRepository;
+        // Updates arrive after the attendance transaction has committed
+        this.notificationTransaction = new TransactionTemplate(transactionManager);
+        this.notificationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Records the student's current standing in the subject. Returns true when this update
+     * moved the student below the threshold.
+     */
+    boolean update(Long studentId, String subject, int present, int total) {
+        Key key = new Key(subject, studentId);
+        if (total >= Math.max(1, minSessions) && present * 100.0 / total < threshold) {
+            if (atRisk.put(key, new Standing(studentId, subject, present, total)) == null) {
+                count.incrementAndGet();
+                countsBySubject.computeIfAbsent(subject, s -> new AtomicInteger()).incrementAndGet();
+                return true;
+            }
+        } else if (atRisk.remove(key) != null) {
+            count.decrementAndGet();
+            countsBySubject.get(subject).decrementAndGet();
+        }
+        return false;
+    }
+
+    void notifyStudent(Long studentId, String subject) {
+        Standing standing = atRisk.get(new Key(subject, studentId));
+        if (!notifyStudents || standing == null) {
+            return;
+        }
+        Notification notification = new Notification();
+        notification.setTitle("Low attendance in " + subject);
+        notification.setMessage(String.format("Your attendance in %s is %.2f%%, below the required %.0f%%.",
+                subject, standing.getPercentage(), threshold));
+        notification.setCreatedBy("system");
+        notification.setTargetRole(Notification.TargetRole.STUDENT);
+        notification.setTargetUserId(studentId);
+        try {
+            notificationTransaction.executeWithoutResult(status -> notificationRepository.save(notification));
+        } catch (RuntimeException e) {
+            log.warn("Could not notify student {} about low attendance", studentId, e);
+        }
+    }
+
+    /**
+     * One page of at-risk students, optionally for one subject, starting after the given
+     * (subject, studentId) cursor. The response carries the cursor for the next page.
+     */
+    public Map<String, Object> page(String subject, String afterSubject, Long afterStudentId, int size) {
+        NavigableMap<Key, Standing> view = subject != null
+                ? atRisk.subMap(new Key(subject, Long.MIN_VALUE), true, new Key(subject, Long.MAX_VALUE), true)
+                : atRisk;
+        String cursorSubject = subject != null ? subject : afterSubject;
+        if (afterStudentId != null && cursorSubject != null) {
+            view = view.tailMap(new Key(cursorSubject, afterStudentId), false);
+        }
+
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Standing> students = new ArrayList<>(size);
+        Iterator<Standing> iterator = view.values().iterator();
+        while (students.size() < size && iterator.hasNext()) {
+            students.add(iterator.next());
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("threshold", threshold);
+        page.put("total", subject != null ? countOf(subject) : count.get());
+        page.put("students", students);
+        if (iterator.hasNext()) {
+            Standing last = students.get(students.size() - 1);
+            page.put("nextAfterSubject", last.subject());
+            page.put("nextAfterStudentId", last.studentId());
+        }
+        return page;
+    }
+
+    private int countOf(String subject) {
+        AtomicInteger subjectCount = countsBySubject.get(subject);
+        return subjectCount != null ? subjectCount.get() : 0;
+    }
+}
@@ -2,14 +2,28 @@ package com.example.campus.features;
 
 import com.example.campus.entity.*;
 import com.example.campus.repository.*;
+import com.example.campus.user.CurrentUser;
 import com.example.campus.user.User;
 import com.example.campus.user.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDate;
 import java.util.*;
@@ -18,6 +32,10 @@ import java.util.*;
 @RequestMapping("/api/faculty")
 public class FacultyController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1970, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
     @Autowired
     private AttendanceRepository attendanceRepository;
 
@@ -45,10 +63,42 @@ public class FacultyController {
     @Autowired
     private TimetableRepository timetableRepository;
 
+    @Autowired
+    private AttendanceWriter attendanceWriter;
+
+    @Autowired
+    private AttendanceIngestQueue attendanceIngestQueue;
+
+    @Autowired
+    private DetentionList detentionList;
+
+    @Autowired
+    private GpaEngine gpaEngine;
+
+    @Autowired
+    private MarkStatistics markStatistics;
+
+    @Autowired
+    private MarkBulkUploader markBulkUploader;
+
+    @Autowired
+    private SubmissionFileStore submissionFileStore;
+
+    @Autowired
+    private SubmissionBulkGrader submissionBulkGrader;
+
+    @Autowired
+    private SimilarityIndex similarityIndex;
+
+    @Autowired
+    private DeadlineReminders deadlineReminders;
+
+    @Autowired
+    private AttendanceSummaryRepository attendanceSummaryRepository;
+
     @GetMapping("/dashboard")
-    public ResponseEntity<?> dashboard(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> dashboard(CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
@@ -60,17 +110,16 @@ public class FacultyController {
             // Assigned subjects
             List<String> assignedSubjects = Arrays.asList("CS101", "MA102");
 
-            // Pending submissions to review
-            List<AssignmentSubmission> pendingSubmissions = submissionRepository.findPendingSubmissionsByAssignment(1L);
+            // Submissions awaiting review on this faculty member's assignments
+            long pendingSubmissions = submissionRepository.countPendingSubmissionsByAssignedBy(user.username());
 
             // Recent notifications
-            List<Notification> notifications = notificationRepository.findByTargetRoleOrAll(Notification.TargetRole.FACULTY);
-            notifications = notifications.stream().limit(5).toList();
+            List<Notification> notifications = notificationRepository.findVisibleTo(user.id(), Notification.TargetRole.FACULTY, Limit.of(5));
 
             Map<String, Object> dashboard = new HashMap<>();
             dashboard.put("todaySchedule", todaySchedule);
             dashboard.put("assignedSubjects", assignedSubjects);
-            dashboard.put("pendingSubmissions", pendingSubmissions.size());
+            dashboard.put("pendingSubmissions", pendingSubmissions);
             dashboard.put("notifications", notifications);
 
             return ResponseEntity.ok(dashboard);
@@ -80,9 +129,8 @@ public class FacultyController {
     }
 
     @PostMapping("/attendance/mark")
-    public ResponseEntity<?> markAttendance(@RequestBody Map<String, Object> attendanceData, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> markAttendance(@RequestBody Map<String, Object> attendanceData, CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
@@ -92,24 +140,49 @@ public class FacultyController {
             attendance.setSubject(attendanceData.get("subject").toString());
             attendance.setDate(LocalDate.parse(attendanceData.get("date").toString()));
             attendance.setStatus(Attendance.AttendanceStatus.valueOf(attendanceData.get("status").toString()));
-            attendance.setMarkedBy(user.getUsername());
+            attendance.setMarkedBy(user.username());
 
-            attendanceRepository.save(attendance);
+            if (attendanceIngestQueue.isEnabled()) {
+                return queueAttendance(List.of(attendance), "Attendance accepted");
+            }
+            attendanceWriter.save(attendance);
             return ResponseEntity.ok(Map.of("message", "Attendance marked successfully"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
     }
 
-    @GetMapping("/attendance/class/{subject}")
-    public ResponseEntity<?> getClassAttendance(@PathVariable String subject, @AuthenticationPrincipal UserDetails userDetails) {
+    @GetMapping("/attendance/at-risk")
+    public ResponseEntity<?> getAtRiskStudents(@RequestParam(required = false) String subject,
+                                               @RequestParam(required = false) String afterSubject,
+                                               @RequestParam(required = false) Long afterStudentId,
+                                               @RequestParam(defaultValue = "50") int size) {
         try {
-            // Get all attendance records for the subject
-            List<Attendance> attendance = attendanceRepository.findAll().stream()
-                    .filter(a -> a.getSubject().equals(subject))
-                    .toList();
+            return ResponseEntity.ok(detentionList.page(subject, afterSubject, afterStudentId, size));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
 
-            return ResponseEntity.ok(attendance);
+    @GetMapping("/attendance/class/{subject}")
+    public ResponseEntity<?> getClassAttendance(@PathVariable String subject,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                @RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "200") int size,
+                                                @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            if (page < 0) {
+                return ResponseEntity.badRequest().body(Map.of("error", "page must not be negative"));
+            }
+            // Index range scan on (subject, date), one page at a time
+            Slice<Attendance> attendance = attendanceRepository.findBySubjectAndDateBetween(
+                    subject, from != null ? from : EARLIEST_DATE, to != null ? to : LATEST_DATE,
+                    PageRequest.of(page, pageSize(size), Sort.by(Sort.Direction.DESC, "date").and(Sort.by("studentId"))));
+
+            return ResponseEntity.ok()
+                    .header("X-Has-Next", String.valueOf(attendance.hasNext()))
+                    .body(attendance.getContent());
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
@@ -117,9 +190,8 @@ public class FacultyController {
 
     @PostMapping("/assignments")
     public ResponseEntity<?> createAssignment(@RequestBody Map<String, Object> assignmentData,
-                                              @AuthenticationPrincipal UserDetails userDetails) {
+                                              CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
@@ -129,7 +201,7 @@ public class FacultyController {
             assignment.setDescription(assignmentData.get("description") != null
                     ? assignmentData.get("description").toString() : null);
             assignment.setSubject(assignmentData.get("subject").toString());
-            assignment.setAssignedBy(user.getUsername());
+            assignment.setAssignedBy(user.username());
             try {
                 Object maxMarksObj = assignmentData.get("maxMarks");
                 if (maxMarksObj != null && !maxMarksObj.toString().isEmpty()) {
@@ -150,6 +222,7 @@ public class FacultyController {
             System.out.println("Saving assignment: " + assignment);
 
             assignmentRepository.save(assignment);
+            deadlineReminders.schedule(assignment);
 
             return ResponseEntity.ok(Map.of("message", "Assignment created successfully"));
         } catch (Exception e) {
@@ -159,15 +232,50 @@ public class FacultyController {
         }
     }
 
+    @PutMapping("/assignments/{assignmentId}")
+    public ResponseEntity<?> updateAssignment(@PathVariable Long assignmentId, @RequestBody Map<String, Object> assignmentData,
+                                              CurrentUser user) {
+        try {
+            if (user == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
+            }
+
+            Assignment assignment = assignmentRepository.findById(assignmentId).orElse(null);
+            if (assignment == null || !user.username().equals(assignment.getAssignedBy())) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Assignment not found"));
+            }
+
+            if (assignmentData.get("title") != null) {
+                assignment.setTitle(assignmentData.get("title").toString());
+            }
+            if (assignmentData.containsKey("description")) {
+                assignment.setDescription(assignmentData.get("description") != null
+                        ? assignmentData.get("description").toString() : null);
+            }
+            if (assignmentData.get("maxMarks") != null && !assignmentData.get("maxMarks").toString().isEmpty()) {
+                assignment.setMaxMarks(Integer.parseInt(assignmentData.get("maxMarks").toString()));
+            }
+            if (assignmentData.get("dueDate") != null) {
+                assignment.setDueDate(LocalDate.parse(assignmentData.get("dueDate").toString()));
+            }
+
+            assignmentRepository.save(assignment);
+            deadlineReminders.schedule(assignment);
+
+            return ResponseEntity.ok(Map.of("message", "Assignment updated successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/assignments")
-    public ResponseEntity<?> getAssignments(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getAssignments(CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
-            List<Assignment> assignments = assignmentRepository.findByAssignedBy(user.getUsername());
+            List<Assignment> assignments = assignmentRepository.findByAssignedBy(user.username());
             return ResponseEntity.ok(assignments);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -184,10 +292,37 @@ public class FacultyController {
         }
     }
 
+    @GetMapping("/assignments/{assignmentId}/similar")
+    public ResponseEntity<?> getSimilarSubmissions(@PathVariable Long assignmentId,
+                                                   @RequestParam(defaultValue = "0.8") double threshold) {
+        try {
+            return ResponseEntity.ok(similarityIndex.candidatePairs(assignmentId, threshold));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/submissions/{submissionId}/file")
+    public ResponseEntity<?> downloadSubmissionFile(@PathVariable Long submissionId) {
+        AssignmentSubmission submission = submissionRepository.findById(submissionId).orElse(null);
+        Path file = submission != null ? submissionFileStore.resolve(submission.getFilePath()) : null;
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // A Resource body gets Range support from Spring MVC, so large files are sent in parts
+        MediaType contentType = SubmissionFileStore.mediaTypeOf(submission.getFileContentType());
+        String fileName = submission.getFileName() != null ? submission.getFileName() : "submission-" + submissionId;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build().toString())
+                .body(new FileSystemResource(file));
+    }
+
     @PostMapping("/assignments/{assignmentId}/grade")
-    public ResponseEntity<?> gradeAssignment(@PathVariable Long assignmentId, @RequestBody Map<String, Object> gradeData, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> gradeAssignment(@PathVariable Long assignmentId, @RequestBody Map<String, Object> gradeData, CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
@@ -201,7 +336,7 @@ public class FacultyController {
 
             submission.setMarksObtained(Integer.valueOf(gradeData.get("marks").toString()));
             submission.setFeedback(gradeData.get("feedback").toString());
-            submission.setGradedBy(user.getUsername());
+            submission.setGradedBy(user.username());
             submission.setGradedAt(LocalDate.now());
             submission.setStatus(AssignmentSubmission.SubmissionStatus.GRADED);
 
@@ -212,10 +347,26 @@ public class FacultyController {
         }
     }
 
+    @PostMapping("/assignments/{assignmentId}/grade/bulk")
+    public ResponseEntity<?> gradeAssignmentsBulk(@PathVariable Long assignmentId, @RequestBody List<Map<String, Object>> grades, CurrentUser user) {
+        try {
+            if (user == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
+            }
+
+            Map<String, Object> summary = submissionBulkGrader.grade(assignmentId, grades, user.username());
+            if (summary == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Assignment not found"));
+            }
+            return ResponseEntity.ok(summary);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/marks")
-    public ResponseEntity<?> addMarks(@RequestBody Map<String, Object> marksData, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> addMarks(@RequestBody Map<String, Object> marksData, CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
@@ -228,21 +379,45 @@ public class FacultyController {
             mark.setMaxMarks(Integer.valueOf(marksData.get("maxMarks").toString()));
             mark.setSemester(marksData.get("semester").toString());
             mark.setAcademicYear(marksData.get("academicYear").toString());
-            mark.setEnteredBy(user.getUsername());
+            mark.setEnteredBy(user.username());
 
             markRepository.save(mark);
+            markStatistics.record(mark);
+            gpaEngine.marksChanged(List.of(mark.getStudentId()));
             return ResponseEntity.ok(Map.of("message", "Marks added successfully"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
     }
 
+    @PostMapping(value = "/marks/bulk", consumes = "application/json")
+    public ResponseEntity<?> addMarksBulk(@RequestBody List<Map<String, Object>> sheet, CurrentUser user) {
+        try {
+            if (user == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
+            }
+            return ResponseEntity.ok(markBulkUploader.upload(sheet, user.username()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping(value = "/marks/bulk", consumes = {"text/csv", "text/plain"})
+    public ResponseEntity<?> addMarksBulkCsv(InputStream csv, CurrentUser user) {
+        try {
+            if (user == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
+            }
+            return ResponseEntity.ok(markBulkUploader.upload(markBulkUploader.parseCsv(csv), user.username()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/marks/subject/{subject}")
     public ResponseEntity<?> getMarksBySubject(@PathVariable String subject, @AuthenticationPrincipal UserDetails userDetails) {
         try {
-            List<Mark> marks = markRepository.findAll().stream()
-                    .filter(m -> m.getSubject().equals(subject))
-                    .toList();
+            List<Mark> marks = markRepository.findBySubject(subject);
 
             return ResponseEntity.ok(marks);
         } catch (Exception e) {
@@ -250,10 +425,20 @@ public class FacultyController {
         }
     }
 
+    @GetMapping("/marks/subject/{subject}/stats")
+    public ResponseEntity<?> getMarkStatsBySubject(@PathVariable String subject,
+                                                   @RequestParam(required = false) Mark.ExamType examType,
+                                                   @RequestParam(required = false) String semester) {
+        try {
+            return ResponseEntity.ok(markStatistics.stats(subject, examType, semester));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/notifications")
-    public ResponseEntity<?> createNotification(@RequestBody Map<String, Object> notificationData, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> createNotification(@RequestBody Map<String, Object> notificationData, CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
@@ -261,7 +446,7 @@ public class FacultyController {
             Notification notification = new Notification();
             notification.setTitle(notificationData.get("title").toString());
             notification.setMessage(notificationData.get("message").toString());
-            notification.setCreatedBy(user.getUsername());
+            notification.setCreatedBy(user.username());
             notification.setTargetRole(Notification.TargetRole.valueOf(notificationData.get("targetRole").toString()));
 
             notificationRepository.save(notification);
@@ -272,9 +457,13 @@ public class FacultyController {
     }
 
     @GetMapping("/notifications")
-    public ResponseEntity<?> getNotifications(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getNotifications(CurrentUser user) {
         try {
-            List<Notification> notifications = notificationRepository.findByTargetRoleOrAll(Notification.TargetRole.FACULTY);
+            if (user == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
+            }
+
+            List<Notification> notifications = notificationRepository.findVisibleTo(user.id(), Notification.TargetRole.FACULTY, Limit.unlimited());
             return ResponseEntity.ok(notifications);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -282,9 +471,8 @@ public class FacultyController {
     }
 
     @PutMapping("/notifications/{id}")
-    public ResponseEntity<?> updateNotification(@PathVariable Long id, @RequestBody Map<String, Object> notificationData, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> updateNotification(@PathVariable Long id, @RequestBody Map<String, Object> notificationData, CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
@@ -306,9 +494,8 @@ public class FacultyController {
     }
 
     @DeleteMapping("/notifications/{id}")
-    public ResponseEntity<?> deleteNotification(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> deleteNotification(@PathVariable Long id, CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
@@ -326,23 +513,22 @@ public class FacultyController {
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<?> getProfile(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getProfile(CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
             // Try to find faculty profile, if not found create mock data
-            Faculty faculty = facultyRepository.findByEmail(user.getUsername()).orElse(null);
+            Faculty faculty = facultyRepository.findByEmail(user.username()).orElse(null);
             if (faculty == null) {
                 // Create mock faculty profile
                 Map<String, Object> mockProfile = new HashMap<>();
-                mockProfile.put("id", user.getId());
+                mockProfile.put("id", user.id());
                 mockProfile.put("name", "Dr. Sarah Johnson");
                 mockProfile.put("employeeId", "FAC2023001");
                 mockProfile.put("department", "Computer Science");
-                mockProfile.put("email", user.getUsername());
+                mockProfile.put("email", user.username());
                 mockProfile.put("phone", "+91 9876543210");
                 mockProfile.put("address", "456 Faculty Street, City, State");
                 mockProfile.put("designation", "Associate Professor");
@@ -359,9 +545,8 @@ public class FacultyController {
     }
 
     @GetMapping("/timetable/today")
-    public ResponseEntity<?> getTodayTimetable(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getTodayTimetable(CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
@@ -460,43 +645,51 @@ public class FacultyController {
     }
 
     @GetMapping("/students/attendance/{subject}")
-    public ResponseEntity<?> getStudentsAttendance(@PathVariable String subject, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getStudentsAttendance(@PathVariable String subject,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                   @RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(defaultValue = "200") int size,
+                                                   @AuthenticationPrincipal UserDetails userDetails) {
         try {
-            // Get all attendance records for the subject
-            List<Attendance> attendance = attendanceRepository.findAll().stream()
-                    .filter(a -> a.getSubject().equals(subject))
-                    .toList();
-
-            // Calculate attendance percentage for each student
-            Map<Long, Map<String, Object>> studentAttendance = new HashMap<>();
-
-            for (Attendance att : attendance) {
-                Long studentId = att.getStudentId();
-                if (!studentAttendance.containsKey(studentId)) {
-                    Map<String, Object> stats = new HashMap<>();
-                    stats.put("studentId", studentId);
-                    stats.put("present", 0);
-                    stats.put("total", 0);
-                    stats.put("percentage", 0.0);
-                    studentAttendance.put(studentId, stats);
-                }
+            if (page < 0) {
+                return ResponseEntity.badRequest().body(Map.of("error", "page must not be negative"));
+            }
+            PageRequest pageRequest = PageRequest.of(page, pageSize(size));
+            List<Map<String, Object>> studentAttendance = new ArrayList<>();
 
-                Map<String, Object> stats = studentAttendance.get(studentId);
-                stats.put("total", (Integer) stats.get("total") + 1);
-                if (att.getStatus() == Attendance.AttendanceStatus.PRESENT) {
-                    stats.put("present", (Integer) stats.get("present") + 1);
+            if (from == null && to == null) {
+                // One pre-aggregated row per student, maintained by AttendanceWriter
+                for (AttendanceSummary summary : attendanceSummaryRepository.findBySubjectOrderByStudentId(subject, pageRequest)) {
+                    studentAttendance.add(attendanceStats(summary.getStudentId(), summary.getPresent(), summary.getTotal()));
+                }
+            } else {
+                // The summary is all-time, so a date range is aggregated over the (subject, date) index
+                for (Object[] row : attendanceRepository.summarizeBySubjectAndDateBetween(
+                        subject, from != null ? from : EARLIEST_DATE, to != null ? to : LATEST_DATE, pageRequest)) {
+                    studentAttendance.add(attendanceStats((Long) row[0], ((Number) row[1]).intValue(), ((Number) row[2]).intValue()));
                 }
-
-                double percentage = ((Integer) stats.get("present") * 100.0) / (Integer) stats.get("total");
-                stats.put("percentage", Math.round(percentage * 100.0) / 100.0);
             }
 
-            return ResponseEntity.ok(studentAttendance.values());
+            return ResponseEntity.ok(studentAttendance);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
     }
 
+    private Map<String, Object> attendanceStats(Long studentId, int present, int total) {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("studentId", studentId);
+        stats.put("present", present);
+        stats.put("total", total);
+        stats.put("percentage", total > 0 ? Math.round(present * 10000.0 / total) / 100.0 : 0.0);
+        return stats;
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
     @GetMapping("/students")
     public ResponseEntity<?> getStudents(@AuthenticationPrincipal UserDetails userDetails) {
         try {
@@ -519,9 +712,8 @@ public class FacultyController {
     }
 
     @GetMapping("/timetable/week")
-    public ResponseEntity<?> getWeeklyTimetable(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getWeeklyTimetable(CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
@@ -559,9 +751,8 @@ public class FacultyController {
     }
 
     @PostMapping("/attendance/bulk")
-    public ResponseEntity<?> markBulkAttendance(@RequestBody Map<String, Object> attendanceData, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> markBulkAttendance(@RequestBody Map<String, Object> attendanceData, CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
@@ -571,19 +762,34 @@ public class FacultyController {
             @SuppressWarnings("unchecked")
             List<Map<String, Object>> students = (List<Map<String, Object>>) attendanceData.get("students");
 
+            List<Attendance> records = new ArrayList<>(students.size());
             for (Map<String, Object> student : students) {
                 Attendance attendance = new Attendance();
                 attendance.setStudentId(Long.valueOf(student.get("studentId").toString()));
                 attendance.setSubject(subject);
                 attendance.setDate(LocalDate.parse(date));
                 attendance.setStatus(Attendance.AttendanceStatus.valueOf(student.get("status").toString()));
-                attendance.setMarkedBy(user.getUsername());
-                attendanceRepository.save(attendance);
+                attendance.setMarkedBy(user.username());
+                records.add(attendance);
+            }
+            if (attendanceIngestQueue.isEnabled()) {
+                return queueAttendance(records, "Attendance accepted for " + students.size() + " students");
             }
+            attendanceWriter.saveAll(records);
 
             return ResponseEntity.ok(Map.of("message", "Attendance marked successfully for " + students.size() + " students"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    // Write-behind mode: the rows are journaled and committed by the background writer
+    private ResponseEntity<?> queueAttendance(List<Attendance> records, String message) throws IOException {
+        if (!attendanceIngestQueue.enqueue(records)) {
+            return ResponseEntity.status(503)
+                    .header("Retry-After", "1")
+                    .body(Map.of("error", "Attendance queue is full, please retry shortly"));
+        }
+        return ResponseEntity.accepted().body(Map.of("message", message));
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.campus.features;
+
+import com.example.campus.entity.Mark;
+import com.example.campus.entity.Student;
+import com.example.campus.entity.Subject;
+import com.example.campus.repository.MarkRepository;
+import com.example.campus.repository.StudentRepository;
+import com.example.campus.repository.SubjectRepository;
+import com.example.campus.user.UserRepository;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Credit-weighted SGPA/CGPA on a 10-point scale. Each subject's score is the exam-type
+ * weighted mean of its marks normalized by maxMarks; the score maps to a grade point which
+ * is weighted by the subject's credits. Results are computed for every student at startup,
+ * cached, and recomputed whenever that student's marks change; each result is written back
+ * to {@link Student} and passed on to {@link CohortRanks}.
+ */
+@Component
+public class GpaEngine {
+
+    public record StudentGpa(double cgpa, Map<String, Double> sgpa) {}
+
+    private static final StudentGpa NO_MARKS = new StudentGpa(0.0, Map.of());
+
+    // Share of the subject score each exam type carries; absent types are left out of the mean
+    private static final Map<Mark.ExamType, Double> EXAM_WEIGHTS = new EnumMap<>(Map.of(
+            Mark.ExamType.QUIZ, 0.10,
+            Mark.ExamType.ASSIGNMENT, 0.15,
+            Mark.ExamType.PROJECT, 0.15,
+            Mark.ExamType.MIDTERM, 0.25,
+            Mark.ExamType.FINAL, 0.35));
+
+    // Subjects missing from the subjects table count as one credit
+    private static final int DEFAULT_CREDITS = 1;
+
+    private static final Pattern SEMESTER_NUMBER = Pattern.compile("\\d+");
+
+    private final MarkRepository markRepository;
+    private final SubjectRepository subjectRepository;
+    private final StudentRepository studentRepository;
+    private final UserRepository userRepository;
+    private final CohortRanks cohortRanks;
+    private final DataSource dataSource;
+
+    private final Map<Long, StudentGpa> cache = new ConcurrentHashMap<>();
+
+    public GpaEngine(MarkRepository markRepository,
+                     SubjectRepository subjectRepository,
+                     StudentRepository studentRepository,
+                     UserRepository userRepository,
+                     CohortRanks cohortRanks,
+                     DataSource dataSource) {
+        this.markRepository = markRepository;
+        this.subjectRepository = subjectRepository;
+        this.studentRepository = studentRepository;
+        this.userRepository = userRepository;
+        this.cohortRanks = cohortRanks;
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    void load() {
+        Map<String, Integer> credits = new HashMap<>();
+        for (Subject subject : subjectRepository.findAll()) {
+            credits.put(subject.getSubjectName(), subject.getCredits());
+            credits.put(subject.getSubjectCode(), subject.getCredits());
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Map<Long, String> departments = new HashMap<>();
+        jdbcTemplate.query("SELECT u.id, s.department FROM users u JOIN students s ON s.email = u.username",
+                rs -> { departments.put(rs.getLong(1), rs.getString(2)); });
+
+        // Marks arrive grouped by student, so only one student's marks are held at a time
+        jdbcTemplate.setFetchSize(Integer.MIN_VALUE); // MySQL: stream rows instead of buffering the result
+        List<Mark> marks = new ArrayList<>();
+        jdbcTemplate.query("SELECT student_id, subject, exam_type, marks_obtained, max_marks, semester " +
+                "FROM marks ORDER BY student_id", rs -> {
+            long studentId = rs.getLong("student_id");
+            if (!marks.isEmpty() && marks.get(0).getStudentId() != studentId) {
+                loaded(marks, credits, departments);
+            }
+            Mark mark = new Mark();
+            mark.setStudentId(studentId);
+            mark.setSubject(rs.getString("subject"));
+            mark.setExamType(Mark.ExamType.valueOf(rs.getString("exam_type")));
+            mark.setMarksObtained(rs.getInt("marks_obtained"));
+            mark.setMaxMarks(rs.getInt("max_marks"));
+            mark.setSemester(rs.getString("semester"));
+            marks.add(mark);
+        });
+        if (!marks.isEmpty()) {
+            loaded(marks, credits, departments);
+        }
+    }
+
+    private void loaded(List<Mark> marks, Map<String, Integer> credits, Map<Long, String> departments) {
+        Long studentId = marks.get(0).getStudentId();
+        StudentGpa gpa = calculate(marks, credits);
+        cache.put(studentId, gpa);
+        cohortRanks.update(studentId, departments.get(studentId), gpa.sgpa());
+        marks.clear();
+    }
+
+    // Queries run outside the map's bin locks so a slow student never blocks others
+    public StudentGpa get(Long studentId) {
+        StudentGpa cached = cache.get(studentId);
+        if (cached != null) {
+            return cached;
+        }
+        StudentGpa gpa = calculate(studentId);
+        StudentGpa raced = cache.putIfAbsent(studentId, gpa);
+        return raced != null ? raced : gpa;
+    }
+
+    /**
+     * Recomputes the given students after their marks changed, stores the result on their
+     * {@link Student} profile, if they have one, and updates their cohort ranks.
+     */
+    public void marksChanged(Collection<Long> studentIds) {
+        for (Long studentId : Set.copyOf(studentIds)) {
+            StudentGpa gpa = calculate(studentId);
+            cache.put(studentId, gpa);
+            Student student = userRepository.findById(studentId)
+                    .flatMap(user -> studentRepository.findByEmail(user.getUsername()))
+                    .orElse(null);
+            if (student != null) {
+                writeBack(student, gpa);
+            }
+            cohortRanks.update(studentId, student != null ? student.getDepartment() : null, gpa.sgpa());
+        }
+    }
+
+    private StudentGpa calculate(Long studentId) {
+        List<Mark> marks = markRepository.findByStudentId(studentId);
+        return calculate(marks, creditsOf(marks.stream().map(Mark::getSubject).collect(Collectors.toSet())));
+    }
+
+    private static StudentGpa calculate(List<Mark> marks, Map<String, Integer> credits) {
+        if (marks.isEmpty()) {
+            return NO_MARKS;
+        }
+
+        // semester -> subject -> marks; marks without a semester only count towards the CGPA
+        Map<String, Map<String, List<Mark>>> bySemester = marks.stream().collect(Collectors.groupingBy(
+                m -> m.getSemester() != null ? m.getSemester() : "",
+                TreeMap::new,
+                Collectors.groupingBy(Mark::getSubject)));
+
+        Map<String, Double> sgpa = new TreeMap<>();
+        double totalPoints = 0;
+        int totalCredits = 0;
+        for (Map.Entry<String, Map<String, List<Mark>>> semester : bySemester.entrySet()) {
+            double points = 0;
+            int semesterCredits = 0;
+            for (Map.Entry<String, List<Mark>> subject : semester.getValue().entrySet()) {
+                int subjectCredits = credits.getOrDefault(subject.getKey(), DEFAULT_CREDITS);
+                points += gradePoint(score(subject.getValue())) * subjectCredits;
+                semesterCredits += subjectCredits;
+            }
+            if (!semester.getKey().isEmpty() && semesterCredits > 0) {
+                sgpa.put(semester.getKey(), round(points / semesterCredits));
+            }
+            totalPoints += points;
+            totalCredits += semesterCredits;
+        }
+        return new StudentGpa(totalCredits > 0 ? round(totalPoints / totalCredits) : 0.0, sgpa);
+    }
+
+    // Weighted percentage for one subject in one semester
+    private static double score(List<Mark> marks) {
+        Map<Mark.ExamType, int[]> byType = new EnumMap<>(Mark.ExamType.class);
+        for (Mark mark : marks) {
+            int[] sums = byType.computeIfAbsent(mark.getExamType(), t -> new int[2]);
+            sums[0] += mark.getMarksObtained();
+            sums[1] += mark.getMaxMarks();
+        }
+        double weighted = 0;
+        double weights = 0;
+        for (Map.Entry<Mark.ExamType, int[]> type : byType.entrySet()) {
+            int[] sums = type.getValue();
+            if (sums[1] > 0) {
+                double weight = EXAM_WEIGHTS.get(type.getKey());
+                weighted += weight * sums[0] * 100.0 / sums[1];
+                weights += weight;
+            }
+        }
+        return weights > 0 ? weighted / weights : 0.0;
+    }
+
+    private static int gradePoint(double percentage) {
+        if (percentage >= 90) return 10;
+        if (percentage >= 80) return 9;
+        if (percentage >= 70) return 8;
+        if (percentage >= 60) return 7;
+        if (percentage >= 50) return 6;
+        if (percentage >= 45) return 5;
+        if (percentage >= 40) return 4;
+        return 0;
+    }
+
+    // Marks reference a subject by name or by code
+    private Map<String, Integer> creditsOf(Set<String> subjects) {
+        Map<String, Integer> credits = new HashMap<>();
+        for (Subject subject : subjectRepository.findByNameOrCode(subjects)) {
+            credits.put(subject.getSubjectName(), subject.getCredits());
+            credits.put(subject.getSubjectCode(), subject.getCredits());
+        }
+        return credits;
+    }
+
+    private void writeBack(Student student, StudentGpa gpa) {
+        student.setCgpa(gpa.cgpa());
+        for (Map.Entry<String, Double> semester : gpa.sgpa().entrySet()) {
+            Matcher number = SEMESTER_NUMBER.matcher(semester.getKey());
+            if (!number.find()) {
+                continue;
+            }
+            switch (number.group()) {
+                case "1" -> student.setSgpaSem1(semester.getValue());
+                case "2" -> student.setSgpaSem2(semester.getValue());
+                case "3" -> student.setSgpaSem3(semester.getValue());
+                default -> { }
+            }
+        }
+        studentRepository.save(student);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -2,8 +2,7 @@ package com.example.campus.features;
 
 import com.example.campus.entity.*;
 import com.example.campus.repository.*;
-import com.example.campus.user.User;
-import com.example.campus.user.UserRepository;
+import com.example.campus.user.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -23,9 +22,6 @@ public class LibraryController {
     @Autowired
     private BookIssueRepository bookIssueRepository;
     
-    @Autowired
-    private UserRepository userRepository;
-
     @GetMapping("/books")
     public ResponseEntity<?> getAllBooks(@RequestParam(required = false) String search,
                                        @RequestParam(required = false) String category) {
@@ -88,9 +84,8 @@ public class LibraryController {
     }
 
     @PostMapping("/books/{bookId}/issue")
-    public ResponseEntity<?> issueBook(@PathVariable Long bookId, @RequestBody Map<String, Object> issueData, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> issueBook(@PathVariable Long bookId, @RequestBody Map<String, Object> issueData, CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
@@ -105,7 +100,7 @@ public class LibraryController {
             }
 
             // Check if student already has this book issued
-            List<BookIssue> existingIssues = bookIssueRepository.findActiveIssuesByStudent(user.getId());
+            List<BookIssue> existingIssues = bookIssueRepository.findActiveIssuesByStudent(user.id());
             boolean alreadyIssued = existingIssues.stream()
                 .anyMatch(issue -> issue.getBookId().equals(bookId));
             
@@ -115,10 +110,10 @@ public class LibraryController {
 
             BookIssue bookIssue = new BookIssue();
             bookIssue.setBookId(bookId);
-            bookIssue.setStudentId(user.getId());
+            bookIssue.setStudentId(user.id());
             bookIssue.setIssueDate(LocalDateTime.now());
             bookIssue.setDueDate(LocalDateTime.now().plusDays(14)); // 14 days from now
-            bookIssue.setIssuedBy(userDetails.getUsername());
+            bookIssue.setIssuedBy(user.username());
 
             bookIssueRepository.save(bookIssue);
 
@@ -133,14 +128,13 @@ public class LibraryController {
     }
 
     @PostMapping("/books/{bookId}/return")
-    public ResponseEntity<?> returnBook(@PathVariable Long bookId, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> returnBook(@PathVariable Long bookId, CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
-            List<BookIssue> activeIssues = bookIssueRepository.findActiveIssuesByStudent(user.getId());
+            List<BookIssue> activeIssues = bookIssueRepository.findActiveIssuesByStudent(user.id());
             BookIssue bookIssue = activeIssues.stream()
                 .filter(issue -> issue.getBookId().equals(bookId))
                 .findFirst()
@@ -175,14 +169,13 @@ public class LibraryController {
     }
 
     @GetMapping("/issues/student")
-    public ResponseEntity<?> getStudentIssues(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getStudentIssues(CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
-            List<BookIssue> issues = bookIssueRepository.findByStudentId(user.getId());
+            List<BookIssue> issues = bookIssueRepository.findByStudentId(user.id());
             return ResponseEntity.ok(issues);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -190,14 +183,13 @@ public class LibraryController {
     }
 
     @GetMapping("/issues/active")
-    public ResponseEntity<?> getActiveIssues(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getActiveIssues(CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
-            List<BookIssue> activeIssues = bookIssueRepository.findActiveIssuesByStudent(user.getId());
+            List<BookIssue> activeIssues = bookIssueRepository.findActiveIssuesByStudent(user.id());
             return ResponseEntity.ok(activeIssues);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -0,0 +1,251 @@
+package com.example.campus.features;
+
+import com.example.campus.entity.Mark;
+import com.example.campus.repository.MarkRepository;
+import com.example.campus.user.Role;
+import com.example.campus.user.User;
+import com.example.campus.user.UserRepository;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Uploads a whole exam sheet of marks. Rows are validated up front, de-duplicated on
+ * (student, subject, examType, semester), and written in one transaction with a JDBC batch
+ * for new marks and one for marks that replace an existing entry. Statistics and GPA
+ * caches are refreshed once for the sheet after it commits.
+ */
+@Component
+public class MarkBulkUploader {
+
+    private static final String INSERT_SQL = "INSERT INTO marks (student_id, subject, exam_type, marks_obtained, max_marks, " +
+            "semester, academic_year, entered_by, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL = "UPDATE marks SET marks_obtained = ?, max_marks = ?, academic_year = ?, " +
+            "entered_by = ?, updated_at = ? WHERE id = ?";
+
+    private static final String[] CSV_COLUMNS =
+            { "studentId", "subject", "examType", "marksObtained", "maxMarks", "semester", "academicYear" };
+
+    private record Key(Long studentId, String subject, Mark.ExamType examType, String semester) {
+        static Key of(Mark mark) {
+            return new Key(mark.getStudentId(), mark.getSubject(), mark.getExamType(), mark.getSemester());
+        }
+    }
+
+    private record Row(int line, Mark mark) {}
+
+    private final MarkRepository markRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MarkStatistics markStatistics;
+    private final GpaEngine gpaEngine;
+
+    public MarkBulkUploader(MarkRepository markRepository,
+                            UserRepository userRepository,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            MarkStatistics markStatistics,
+                            GpaEngine gpaEngine) {
+        this.markRepository = markRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.markStatistics = markStatistics;
+        this.gpaEngine = gpaEngine;
+    }
+
+    /**
+     * Reads a CSV sheet with the header studentId,subject,examType,marksObtained,maxMarks,
+     * semester,academicYear into the same row maps the JSON upload uses.
+     */
+    public List<Map<String, Object>> parseCsv(InputStream csv) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        List<Map<String, Object>> rows = new ArrayList<>();
+        String line;
+        boolean first = true;
+        while ((line = reader.readLine()) != null) {
+            if (first && line.toLowerCase().startsWith("studentid")) {
+                first = false;
+                continue;
+            }
+            first = false;
+            Map<String, Object> row = new HashMap<>();
+            if (!line.isBlank()) {
+                String[] fields = line.split(",", -1);
+                for (int i = 0; i < fields.length && i < CSV_COLUMNS.length; i++) {
+                    if (!fields[i].isBlank()) {
+                        row.put(CSV_COLUMNS[i], fields[i].trim());
+                    }
+                }
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    public Map<String, Object> upload(List<Map<String, Object>> sheet, String enteredBy) {
+        List<Map<String, Object>> results = new ArrayList<>(sheet.size());
+        Map<Key, Row> unique = new LinkedHashMap<>();
+        for (int i = 0; i < sheet.size(); i++) {
+            int line = i + 1;
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("row", line);
+            results.add(result);
+            try {
+                Mark mark = parse(sheet.get(i), enteredBy);
+                Row previous = unique.putIfAbsent(Key.of(mark), new Row(line, mark));
+                if (previous != null) {
+                    reject(result, "Duplicate of row " + previous.line());
+                }
+            } catch (IllegalArgumentException | NullPointerException e) {
+                reject(result, e.getMessage() != null ? e.getMessage() : "Missing field");
+            }
+        }
+
+        // Marks may only be entered for existing students
+        Set<Long> studentIds = unique.keySet().stream().map(Key::studentId).collect(Collectors.toSet());
+        Set<Long> students = userRepository.findAllById(studentIds).stream()
+                .filter(u -> u.getRole() == Role.STUDENT)
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        unique.values().removeIf(row -> {
+            if (!students.contains(row.mark().getStudentId())) {
+                reject(results.get(row.line() - 1), "Unknown student " + row.mark().getStudentId());
+                return true;
+            }
+            return false;
+        });
+
+        List<Mark> replaced = new ArrayList<>();
+        if (!unique.isEmpty()) {
+            try {
+                replaced = transactionTemplate.execute(status -> write(unique.values()));
+                for (Row row : unique.values()) {
+                    results.get(row.line() - 1).put("status", row.mark().getId() != null ? "updated" : "inserted");
+                }
+            } catch (RuntimeException e) {
+                for (Row row : unique.values()) {
+                    reject(results.get(row.line() - 1), "Sheet not saved: " + e.getMessage());
+                }
+                unique.clear();
+            }
+        }
+
+        if (!unique.isEmpty()) {
+            replaced.forEach(markStatistics::remove);
+            unique.values().forEach(row -> markStatistics.record(row.mark()));
+            gpaEngine.marksChanged(unique.values().stream().map(row -> row.mark().getStudentId()).toList());
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("processed", sheet.size());
+        summary.put("inserted", results.stream().filter(r -> "inserted".equals(r.get("status"))).count());
+        summary.put("updated", results.stream().filter(r -> "updated".equals(r.get("status"))).count());
+        summary.put("failed", results.stream().filter(r -> "error".equals(r.get("status"))).count());
+        summary.put("results", results);
+        return summary;
+    }
+
+    // Returns the previous versions of the marks that were replaced
+    private List<Mark> write(Iterable<Row> rows) {
+        List<Row> sheet = new ArrayList<>();
+        rows.forEach(sheet::add);
+        Map<Key, Mark> existing = new HashMap<>();
+        for (Mark mark : markRepository.findByStudentIdInAndSubjectIn(
+                sheet.stream().map(r -> r.mark().getStudentId()).collect(Collectors.toSet()),
+                sheet.stream().map(r -> r.mark().getSubject()).collect(Collectors.toSet()))) {
+            existing.put(Key.of(mark), mark);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Mark> replaced = new ArrayList<>();
+        for (Row row : sheet) {
+            Mark mark = row.mark();
+            Mark current = existing.get(Key.of(mark));
+            if (current != null) {
+                replaced.add(copyOf(current));
+                mark.setId(current.getId());
+                updates.add(new Object[] { mark.getMarksObtained(), mark.getMaxMarks(), mark.getAcademicYear(),
+                        mark.getEnteredBy(), now, current.getId() });
+            } else {
+                inserts.add(new Object[] { mark.getStudentId(), mark.getSubject(), mark.getExamType().name(),
+                        mark.getMarksObtained(), mark.getMaxMarks(), mark.getSemester(), mark.getAcademicYear(),
+                        mark.getEnteredBy(), now, now });
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        return replaced;
+    }
+
+    private static Mark parse(Map<String, Object> row, String enteredBy) {
+        Mark mark = new Mark();
+        mark.setStudentId(Long.valueOf(required(row, "studentId")));
+        mark.setSubject(required(row, "subject"));
+        try {
+            mark.setExamType(Mark.ExamType.valueOf(required(row, "examType").toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid examType. Allowed: QUIZ, MIDTERM, FINAL, ASSIGNMENT, PROJECT");
+        }
+        int obtained = Integer.parseInt(required(row, "marksObtained"));
+        int max = Integer.parseInt(required(row, "maxMarks"));
+        if (max < 1 || max > 100) {
+            throw new IllegalArgumentException("maxMarks must be between 1 and 100");
+        }
+        if (obtained < 0 || obtained > max) {
+            throw new IllegalArgumentException("marksObtained must be between 0 and maxMarks");
+        }
+        mark.setMarksObtained(obtained);
+        mark.setMaxMarks(max);
+        mark.setSemester(required(row, "semester"));
+        mark.setAcademicYear(row.get("academicYear") != null ? row.get("academicYear").toString() : null);
+        mark.setEnteredBy(enteredBy);
+        return mark;
+    }
+
+    private static String required(Map<String, Object> row, String field) {
+        Object value = row.get(field);
+        if (value == null || value.toString().isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value.toString().trim();
+    }
+
+    private static Mark copyOf(Mark mark) {
+        Mark copy = new Mark();
+        copy.setSubject(mark.getSubject());
+        copy.setExamType(mark.getExamType());
+        copy.setSemester(mark.getSemester());
+        copy.setMarksObtained(mark.getMarksObtained());
+        copy.setMaxMarks(mark.getMaxMarks());
+        return copy;
+    }
+
+    private static void reject(Map<String, Object> result, String error) {
+        result.put("status", "error");
+        result.put("error", error);
+    }
+}
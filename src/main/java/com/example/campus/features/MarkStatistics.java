@@ -0,0 +1,168 @@
+package com.example.campus.features;
+
+import com.example.campus.entity.Mark;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Score distributions per (subject, exam type, semester) as fixed-bucket histograms over
+ * the percentage scored (marksObtained / maxMarks), one bucket per percent. Loaded from the
+ * marks table at startup and updated on every mark write, so mean, stddev, percentiles and
+ * histograms come back in constant time however large the cohort is. Histograms merge by
+ * adding buckets, which gives the per-subject totals.
+ */
+@Component
+public class MarkStatistics {
+
+    private record Key(String subject, Mark.ExamType examType, String semester) {}
+
+    private final DataSource dataSource;
+    private final Map<Key, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public MarkStatistics(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    void load() {
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(Integer.MIN_VALUE); // MySQL: stream rows instead of buffering the result
+        streaming.query("SELECT subject, exam_type, semester, marks_obtained, max_marks FROM marks", rs -> {
+            add(rs.getString("subject"), Mark.ExamType.valueOf(rs.getString("exam_type")), rs.getString("semester"),
+                    rs.getInt("marks_obtained"), rs.getInt("max_marks"), 1);
+        });
+    }
+
+    public void record(Mark mark) {
+        add(mark.getSubject(), mark.getExamType(), mark.getSemester(), mark.getMarksObtained(), mark.getMaxMarks(), 1);
+    }
+
+    public void remove(Mark mark) {
+        add(mark.getSubject(), mark.getExamType(), mark.getSemester(), mark.getMarksObtained(), mark.getMaxMarks(), -1);
+    }
+
+    private void add(String subject, Mark.ExamType examType, String semester, int obtained, int max, int delta) {
+        if (max <= 0) {
+            return;
+        }
+        Histogram histogram = histograms.computeIfAbsent(new Key(subject, examType, semester), k -> new Histogram());
+        histogram.add(obtained * 100.0 / max, delta);
+    }
+
+    /**
+     * Stats for one subject: one group per (exam type, semester) matching the optional
+     * filters, plus all of them merged.
+     */
+    public Map<String, Object> stats(String subject, Mark.ExamType examType, String semester) {
+        List<Map<String, Object>> groups = new ArrayList<>();
+        Histogram overall = new Histogram();
+        for (Map.Entry<Key, Histogram> entry : histograms.entrySet()) {
+            Key key = entry.getKey();
+            if (!key.subject().equals(subject)
+                    || (examType != null && key.examType() != examType)
+                    || (semester != null && !semester.equals(key.semester()))) {
+                continue;
+            }
+            Histogram snapshot = entry.getValue().copy();
+            if (snapshot.count == 0) {
+                continue;
+            }
+            overall.merge(snapshot);
+            Map<String, Object> group = new LinkedHashMap<>();
+            group.put("examType", key.examType());
+            group.put("semester", key.semester());
+            group.putAll(snapshot.summary());
+            groups.add(group);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("subject", subject);
+        result.put("unit", "percent");
+        result.put("overall", overall.summary());
+        result.put("groups", groups);
+        return result;
+    }
+
+    private static final class Histogram {
+        private static final int HISTOGRAM_BINS = 10;
+
+        private final long[] buckets = new long[101];
+        private long count;
+        private double sum;
+        private double sumOfSquares;
+
+        synchronized void add(double percentage, int delta) {
+            double clamped = Math.max(0, Math.min(100, percentage));
+            buckets[(int) Math.round(clamped)] += delta;
+            count += delta;
+            sum += delta * clamped;
+            sumOfSquares += delta * clamped * clamped;
+        }
+
+        synchronized Histogram copy() {
+            Histogram copy = new Histogram();
+            copy.merge(this);
+            return copy;
+        }
+
+        void merge(Histogram other) {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] += other.buckets[i];
+            }
+            count += other.count;
+            sum += other.sum;
+            sumOfSquares += other.sumOfSquares;
+        }
+
+        Map<String, Object> summary() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", count);
+            if (count == 0) {
+                return summary;
+            }
+            double mean = sum / count;
+            summary.put("mean", round(mean));
+            summary.put("stddev", round(Math.sqrt(Math.max(0, sumOfSquares / count - mean * mean))));
+            summary.put("p10", percentile(0.10));
+            summary.put("p50", percentile(0.50));
+            summary.put("p90", percentile(0.90));
+
+            List<Map<String, Object>> histogram = new ArrayList<>(HISTOGRAM_BINS);
+            for (int bin = 0; bin < HISTOGRAM_BINS; bin++) {
+                int from = bin * 10;
+                int to = bin == HISTOGRAM_BINS - 1 ? 100 : from + 9;
+                long binCount = 0;
+                for (int i = from; i <= to; i++) {
+                    binCount += buckets[i];
+                }
+                histogram.add(Map.of("from", from, "to", to, "count", binCount));
+            }
+            summary.put("histogram", histogram);
+            return summary;
+        }
+
+        // Smallest percentage with at least the given share of scores at or below it
+        private int percentile(double quantile) {
+            long rank = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank && seen > 0) {
+                    return i;
+                }
+            }
+            return 100;
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100.0) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.campus.features;
+
+import com.example.campus.entity.Assignment;
+import com.example.campus.entity.Attendance;
+import com.example.campus.entity.Fee;
+import com.example.campus.entity.Mark;
+import com.example.campus.repository.AssignmentRepository;
+import com.example.campus.repository.AttendanceRepository;
+import com.example.campus.repository.FeeRepository;
+import com.example.campus.repository.MarkRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Streams the admin reports as a JSON array (the original format), NDJSON or CSV. Rows are
+ * read through a MySQL streaming cursor, written as soon as they arrive and detached from
+ * the persistence context right after, so heap use does not grow with the report size.
+ */
+@Component
+public class ReportExporter {
+
+    public enum Format {
+        JSON("application/json", "json"),
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return value == null ? JSON : valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported format: " + value + " (use json, ndjson or csv)");
+            }
+        }
+    }
+
+    public record Filter(LocalDate from, LocalDate to, String department, String semester) {}
+
+    private record Column<T>(String header, Function<T, Object> value) {}
+
+    private static final List<Column<Attendance>> ATTENDANCE_COLUMNS = List.of(
+            new Column<>("id", Attendance::getId),
+            new Column<>("studentId", Attendance::getStudentId),
+            new Column<>("subject", Attendance::getSubject),
+            new Column<>("date", Attendance::getDate),
+            new Column<>("status", Attendance::getStatus),
+            new Column<>("markedBy", Attendance::getMarkedBy));
+
+    private static final List<Column<Mark>> MARK_COLUMNS = List.of(
+            new Column<>("id", Mark::getId),
+            new Column<>("studentId", Mark::getStudentId),
+            new Column<>("subject", Mark::getSubject),
+            new Column<>("examType", Mark::getExamType),
+            new Column<>("marksObtained", Mark::getMarksObtained),
+            new Column<>("maxMarks", Mark::getMaxMarks),
+            new Column<>("semester", Mark::getSemester),
+            new Column<>("academicYear", Mark::getAcademicYear),
+            new Column<>("enteredBy", Mark::getEnteredBy),
+            new Column<>("createdAt", Mark::getCreatedAt));
+
+    private static final List<Column<Fee>> FEE_COLUMNS = List.of(
+            new Column<>("id", Fee::getId),
+            new Column<>("studentId", Fee::getStudentId),
+            new Column<>("feeType", Fee::getFeeType),
+            new Column<>("amount", Fee::getAmount),
+            new Column<>("dueDate", Fee::getDueDate),
+            new Column<>("paidDate", Fee::getPaidDate),
+            new Column<>("paymentMethod", Fee::getPaymentMethod),
+            new Column<>("transactionId", Fee::getTransactionId),
+            new Column<>("status", Fee::getStatus));
+
+    private static final List<Column<Assignment>> ASSIGNMENT_COLUMNS = List.of(
+            new Column<>("id", Assignment::getId),
+            new Column<>("title", Assignment::getTitle),
+            new Column<>("subject", Assignment::getSubject),
+            new Column<>("classId", Assignment::getClassId),
+            new Column<>("assignedBy", Assignment::getAssignedBy),
+            new Column<>("dueDate", Assignment::getDueDate),
+            new Column<>("maxMarks", Assignment::getMaxMarks));
+
+    private final AttendanceRepository attendanceRepository;
+    private final MarkRepository markRepository;
+    private final FeeRepository feeRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ReportExporter(AttendanceRepository attendanceRepository,
+                          MarkRepository markRepository,
+                          FeeRepository feeRepository,
+                          AssignmentRepository assignmentRepository,
+                          ObjectMapper objectMapper,
+                          PlatformTransactionManager transactionManager) {
+        this.attendanceRepository = attendanceRepository;
+        this.markRepository = markRepository;
+        this.feeRepository = feeRepository;
+        this.assignmentRepository = assignmentRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public ResponseEntity<StreamingResponseBody> attendance(Format format, Filter filter) {
+        return export("attendance-report", format, ATTENDANCE_COLUMNS, () -> attendanceRepository.streamForReport(
+                filter.from(), filter.to(), filter.department(), filter.semester()));
+    }
+
+    public ResponseEntity<StreamingResponseBody> marks(Format format, Filter filter) {
+        LocalDateTime from = filter.from() != null ? filter.from().atStartOfDay() : null;
+        LocalDateTime to = filter.to() != null ? filter.to().plusDays(1).atStartOfDay() : null;
+        return export("marks-report", format, MARK_COLUMNS, () -> markRepository.streamForReport(
+                from, to, filter.department(), filter.semester()));
+    }
+
+    // Fees carry no subject, so only the date range applies
+    public ResponseEntity<StreamingResponseBody> fees(Format format, Filter filter) {
+        return export("fees-report", format, FEE_COLUMNS, () -> feeRepository.streamForReport(
+                filter.from(), filter.to()));
+    }
+
+    public ResponseEntity<StreamingResponseBody> assignments(Format format, Filter filter) {
+        return export("assignments-report", format, ASSIGNMENT_COLUMNS, () -> assignmentRepository.streamForReport(
+                filter.from(), filter.to(), filter.department(), filter.semester()));
+    }
+
+    private <T> ResponseEntity<StreamingResponseBody> export(String name, Format format, List<Column<T>> columns,
+                                                              Supplier<Stream<T>> query) {
+        // The body runs after the handler returns, on its own transaction and cursor
+        StreamingResponseBody body = out -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> rows = query.get()) {
+                Iterator<T> iterator = rows.iterator();
+                if (format == Format.CSV) {
+                    writeCsv(out, columns, iterator);
+                } else {
+                    writeJson(out, format == Format.NDJSON, iterator);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType));
+        if (format != Format.JSON) {
+            response.header(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"" + name + "." + format.extension + "\"");
+        }
+        return response.body(body);
+    }
+
+    private <T> void writeJson(OutputStream out, boolean ndjson, Iterator<T> rows) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            if (ndjson) {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+            } else {
+                generator.writeStartArray();
+            }
+            while (rows.hasNext()) {
+                T row = rows.next();
+                writer.writeValue(generator, row);
+                entityManager.detach(row);
+            }
+            if (ndjson) {
+                generator.writeRaw('\n');
+            } else {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    private <T> void writeCsv(OutputStream out, List<Column<T>> columns, Iterator<T> rows) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", columns.stream().map(Column::header).toList()));
+        writer.write("\r\n");
+        while (rows.hasNext()) {
+            T row = rows.next();
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvField(columns.get(i).value().apply(row)));
+            }
+            writer.write("\r\n");
+            entityManager.detach(row);
+        }
+        writer.flush();
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+}
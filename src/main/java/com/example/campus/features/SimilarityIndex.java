@@ -0,0 +1,225 @@
+package com.example.campus.features;
+
+import com.example.campus.entity.AssignmentSubmission;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Near-duplicate detection for submission texts. Each text is reduced to word 3-gram
+ * shingles and a 128-value MinHash signature, which is split into 16 bands of 8 rows and
+ * bucketed per assignment. Only submissions sharing a band bucket are compared, so finding
+ * candidate pairs is close to linear in the number of submissions rather than quadratic.
+ * With 16 x 8 bands, pairs above roughly 0.7 Jaccard similarity are very likely to collide.
+ * Texts too short to shingle meaningfully (stubs like "see attached") are not indexed, and
+ * only a student's latest submission per assignment is kept.
+ */
+@Component
+public class SimilarityIndex {
+
+    private static final int BANDS = 16;
+    private static final int ROWS = 8;
+    private static final int SIGNATURE_SIZE = BANDS * ROWS;
+    private static final int SHINGLE_WORDS = 3;
+    private static final int MIN_SHINGLES = 5;
+
+    // Fixed seed so signatures are comparable across restarts
+    private static final long[] MULTIPLIERS = new long[SIGNATURE_SIZE];
+    private static final long[] OFFSETS = new long[SIGNATURE_SIZE];
+    static {
+        Random random = new Random(0x5eed);
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1;
+            OFFSETS[i] = random.nextLong();
+        }
+    }
+
+    private record Signed(Long submissionId, Long studentId, long[] signature) {}
+
+    private final DataSource dataSource;
+    private final Map<Long, AssignmentBuckets> assignments = new ConcurrentHashMap<>();
+
+    public SimilarityIndex(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    void load() {
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(Integer.MIN_VALUE); // MySQL: stream rows instead of buffering the result
+        streaming.query("SELECT id, assignment_id, student_id, submission_text FROM assignment_submissions " +
+                "WHERE submission_text IS NOT NULL ORDER BY id", rs -> {
+            add(rs.getLong("id"), rs.getLong("assignment_id"), rs.getLong("student_id"), rs.getString("submission_text"));
+        });
+    }
+
+    public void add(AssignmentSubmission submission) {
+        if (submission.getSubmissionText() != null) {
+            add(submission.getId(), submission.getAssignmentId(), submission.getStudentId(), submission.getSubmissionText());
+        }
+    }
+
+    private void add(Long submissionId, Long assignmentId, Long studentId, String text) {
+        long[] signature = signature(text);
+        AssignmentBuckets buckets = assignments.computeIfAbsent(assignmentId, id -> new AssignmentBuckets());
+        if (signature != null) {
+            buckets.add(new Signed(submissionId, studentId, signature));
+        } else {
+            buckets.remove(studentId); // a stub re-submission still replaces the earlier text
+        }
+    }
+
+    /**
+     * Pairs of submissions by different students whose estimated Jaccard similarity is at
+     * least the threshold, most similar first.
+     */
+    public List<Map<String, Object>> candidatePairs(Long assignmentId, double threshold) {
+        AssignmentBuckets buckets = assignments.get(assignmentId);
+        return buckets != null ? buckets.pairs(threshold) : List.of();
+    }
+
+    static long[] signature(String text) {
+        String[] words = text.toLowerCase().split("[^\\p{L}\\p{N}]+");
+        List<String> tokens = new ArrayList<>(words.length);
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                tokens.add(word);
+            }
+        }
+        int shingles = tokens.size() - SHINGLE_WORDS + 1;
+        if (shingles < MIN_SHINGLES) {
+            return null;
+        }
+
+        long[] signature = new long[SIGNATURE_SIZE];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = hash(tokens, start, start + SHINGLE_WORDS);
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                long value = (MULTIPLIERS[i] * shingle + OFFSETS[i]) >>> 1;
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    // 64-bit FNV-1a over the words of one shingle
+    private static long hash(List<String> tokens, int from, int to) {
+        long hash = 0xcbf29ce484222325L;
+        for (int t = from; t < to; t++) {
+            String token = tokens.get(t);
+            for (int c = 0; c < token.length(); c++) {
+                hash ^= token.charAt(c);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= ' ';
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    static double similarity(long[] a, long[] b) {
+        int same = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / SIGNATURE_SIZE;
+    }
+
+    private static final class AssignmentBuckets {
+        private final List<Map<Long, List<Signed>>> bands = new ArrayList<>(BANDS);
+        private final Map<Long, Signed> latestByStudent = new HashMap<>();
+
+        AssignmentBuckets() {
+            for (int band = 0; band < BANDS; band++) {
+                bands.add(new HashMap<>());
+            }
+        }
+
+        // A re-submission replaces the student's previous entry
+        synchronized void add(Signed submission) {
+            remove(submission.studentId());
+            latestByStudent.put(submission.studentId(), submission);
+            for (int band = 0; band < BANDS; band++) {
+                bands.get(band).computeIfAbsent(bandHash(submission.signature(), band), k -> new ArrayList<>(2))
+                        .add(submission);
+            }
+        }
+
+        synchronized void remove(Long studentId) {
+            Signed previous = latestByStudent.remove(studentId);
+            if (previous != null) {
+                for (int band = 0; band < BANDS; band++) {
+                    long key = bandHash(previous.signature(), band);
+                    List<Signed> bucket = bands.get(band).get(key);
+                    if (bucket != null) {
+                        bucket.remove(previous);
+                        if (bucket.isEmpty()) {
+                            bands.get(band).remove(key);
+                        }
+                    }
+                }
+            }
+        }
+
+        synchronized List<Map<String, Object>> pairs(double threshold) {
+            Set<Long> seen = new HashSet<>();
+            List<Map<String, Object>> pairs = new ArrayList<>();
+            for (Map<Long, List<Signed>> band : bands) {
+                for (List<Signed> bucket : band.values()) {
+                    for (int i = 0; i < bucket.size(); i++) {
+                        for (int j = i + 1; j < bucket.size(); j++) {
+                            Signed a = bucket.get(i);
+                            Signed b = bucket.get(j);
+                            if (a.studentId().equals(b.studentId())
+                                    || !seen.add(pairKey(a.submissionId(), b.submissionId()))) {
+                                continue;
+                            }
+                            double similarity = similarity(a.signature(), b.signature());
+                            if (similarity >= threshold) {
+                                Map<String, Object> pair = new LinkedHashMap<>();
+                                pair.put("submissionA", a.submissionId());
+                                pair.put("studentA", a.studentId());
+                                pair.put("submissionB", b.submissionId());
+                                pair.put("studentB", b.studentId());
+                                pair.put("similarity", Math.round(similarity * 1000.0) / 1000.0);
+                                pairs.add(pair);
+                            }
+                        }
+                    }
+                }
+            }
+            pairs.sort(Comparator.comparing((Map<String, Object> p) -> (Double) p.get("similarity")).reversed());
+            return pairs;
+        }
+
+        private static long bandHash(long[] signature, int band) {
+            long hash = band;
+            for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+                hash = hash * 0x9e3779b97f4a7c15L + signature[row];
+            }
+            return hash;
+        }
+
+        // Submission ids are database ids, well below 2^31
+        private static long pairKey(Long a, Long b) {
+            return Math.min(a, b) << 32 | Math.max(a, b);
+        }
+    }
+}
@@ -3,14 +3,17 @@ package com.example.campus.features;
 import com.example.campus.entity.*;
 import com.example.campus.repository.*;
 import com.example.campus.security.JwtService;
-import com.example.campus.user.User;
-import com.example.campus.user.UserRepository;
+import com.example.campus.user.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDate;
@@ -20,9 +23,14 @@ import java.util.*;
 @RequestMapping("/api/student")
 public class StudentController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private AttendanceRepository attendanceRepository;
 
+    @Autowired
+    private AttendanceSummaryRepository attendanceSummaryRepository;
+
     @Autowired
     private AssignmentRepository assignmentRepository;
 
@@ -42,10 +50,19 @@ public class StudentController {
     private FeedbackRepository feedbackRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private GpaEngine gpaEngine;
 
     @Autowired
-    private StudentRepository studentRepository;
+    private CohortRanks cohortRanks;
+
+    @Autowired
+    private SubmissionFileStore submissionFileStore;
+
+    @Autowired
+    private SimilarityIndex similarityIndex;
 
     @Autowired
     private SubjectRepository subjectRepository;
@@ -55,14 +72,13 @@ public class StudentController {
 
 
     @GetMapping("/dashboard")
-    public ResponseEntity<?> dashboard(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> dashboard(CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
-            Long studentId = user.getId();
+            Long studentId = user.id();
             LocalDate today = LocalDate.now();
 
             // Today's attendance
@@ -76,12 +92,10 @@ public class StudentController {
             BigDecimal totalPending = feeRepository.calculateTotalPending(studentId);
 
             // Recent notifications
-            List<Notification> notifications = notificationRepository.findByTargetRoleOrAll(Notification.TargetRole.STUDENT);
-            notifications = notifications.stream().limit(5).toList();
+            List<Notification> notifications = notificationRepository.findVisibleTo(user.id(), Notification.TargetRole.STUDENT, Limit.of(5));
 
-            // CGPA calculation
-            Double cgpa = markRepository.calculateCGPA(studentId);
-            if (cgpa == null) cgpa = 0.0;
+            // Precomputed by GpaEngine, refreshed whenever the student's marks change
+            GpaEngine.StudentGpa gpa = gpaEngine.get(studentId);
 
             Map<String, Object> dashboard = new HashMap<>();
             dashboard.put("todayAttendance", todayAttendance);
@@ -89,7 +103,7 @@ public class StudentController {
             dashboard.put("totalPaid", totalPaid != null ? totalPaid : BigDecimal.ZERO);
             dashboard.put("totalPending", totalPending != null ? totalPending : BigDecimal.ZERO);
             dashboard.put("notifications", notifications);
-            dashboard.put("cgpa", Math.round(cgpa * 100.0) / 100.0);
+            dashboard.put("cgpa", gpa.cgpa());
             dashboard.put("studyHours", 3.5); // Mock data
             dashboard.put("schedule", "Maths at 10:00, Physics at 2:00"); // Mock data
 
@@ -100,14 +114,13 @@ public class StudentController {
     }
 
     @GetMapping("/attendance")
-    public ResponseEntity<?> getAttendance(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getAttendance(CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
-            List<Attendance> attendance = attendanceRepository.findByStudentId(user.getId());
+            List<Attendance> attendance = attendanceRepository.findByStudentId(user.id());
             return ResponseEntity.ok(attendance);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -115,22 +128,20 @@ public class StudentController {
     }
 
     @GetMapping("/attendance/subject/{subject}")
-    public ResponseEntity<?> getAttendanceBySubject(@PathVariable String subject, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getAttendanceBySubject(@PathVariable String subject, CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
-            List<Attendance> attendance = attendanceRepository.findByStudentIdAndSubject(user.getId(), subject);
-            Long present = attendanceRepository.countPresentByStudentAndSubject(user.getId(), subject);
-            Long total = attendanceRepository.countTotalByStudentAndSubject(user.getId(), subject);
+            List<Attendance> attendance = attendanceRepository.findByStudentIdAndSubject(user.id(), subject);
+            AttendanceSummary summary = attendanceSummaryRepository.findByStudentIdAndSubject(user.id(), subject).orElse(null);
 
             Map<String, Object> result = new HashMap<>();
             result.put("attendance", attendance);
-            result.put("present", present);
-            result.put("total", total);
-            result.put("percentage", total > 0 ? (present * 100.0 / total) : 0.0);
+            result.put("present", summary != null ? summary.getPresent() : 0);
+            result.put("total", summary != null ? summary.getTotal() : 0);
+            result.put("percentage", summary != null ? summary.getPercentage() : 0.0);
 
             return ResponseEntity.ok(result);
         } catch (Exception e) {
@@ -148,42 +159,118 @@ public class StudentController {
         }
     }
 
+    // One query per page: the student's assignments with their own submission status, keyset-paged by (dueDate, id)
+    @GetMapping("/assignments/overview")
+    public ResponseEntity<?> getAssignmentOverview(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDueDate,
+                                                   @RequestParam(required = false) Long afterId,
+                                                   @RequestParam(defaultValue = "50") int size,
+                                                   CurrentUser user) {
+        try {
+            if (user == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
+            }
+
+            size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            // Without a cursor, start with assignments due on `from` (default today)
+            List<StudentAssignmentView> assignments = afterDueDate != null && afterId != null
+                    ? assignmentRepository.findStudentAssignments(user.id(), afterDueDate, afterId, Limit.of(size + 1))
+                    : assignmentRepository.findStudentAssignments(user.id(), from != null ? from : LocalDate.now(), 0L, Limit.of(size + 1));
+
+            Map<String, Object> page = new LinkedHashMap<>();
+            boolean hasNext = assignments.size() > size;
+            if (hasNext) {
+                assignments = assignments.subList(0, size);
+            }
+            page.put("assignments", assignments);
+            if (hasNext) {
+                StudentAssignmentView last = assignments.get(size - 1);
+                page.put("nextAfterDueDate", last.dueDate());
+                page.put("nextAfterId", last.id());
+            }
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/assignments/{assignmentId}/submit")
-    public ResponseEntity<?> submitAssignment(@PathVariable Long assignmentId, @RequestBody Map<String, String> submission, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> submitAssignment(@PathVariable Long assignmentId, @RequestBody Map<String, String> submission, CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
             AssignmentSubmission assignmentSubmission = new AssignmentSubmission();
             assignmentSubmission.setAssignmentId(assignmentId);
-            assignmentSubmission.setStudentId(user.getId());
+            assignmentSubmission.setStudentId(user.id());
             assignmentSubmission.setSubmissionText(submission.get("text"));
             assignmentSubmission.setSubmittedAt(LocalDate.now());
 
             submissionRepository.save(assignmentSubmission);
+            similarityIndex.add(assignmentSubmission);
+            return ResponseEntity.ok(Map.of("message", "Assignment submitted successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping(value = "/assignments/{assignmentId}/submit", consumes = "multipart/form-data")
+    public ResponseEntity<?> submitAssignmentFile(@PathVariable Long assignmentId,
+                                                  @RequestParam(required = false) MultipartFile file,
+                                                  @RequestParam(required = false) String text,
+                                                  CurrentUser user) {
+        try {
+            if (user == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
+            }
+            if ((file == null || file.isEmpty()) && (text == null || text.isBlank())) {
+                return ResponseEntity.badRequest().body(Map.of("error", "A file or text is required"));
+            }
+
+            AssignmentSubmission assignmentSubmission = new AssignmentSubmission();
+            assignmentSubmission.setAssignmentId(assignmentId);
+            assignmentSubmission.setStudentId(user.id());
+            assignmentSubmission.setSubmissionText(text);
+            assignmentSubmission.setSubmittedAt(LocalDate.now());
+
+            if (file != null && !file.isEmpty()) {
+                if (file.getSize() > submissionFileStore.getMaxFileBytes()) {
+                    return ResponseEntity.status(413).body(Map.of("error", "File is too large"));
+                }
+                try (InputStream content = file.getInputStream()) {
+                    SubmissionFileStore.StoredFile stored = submissionFileStore.store(content);
+                    assignmentSubmission.setFilePath(stored.path());
+                    assignmentSubmission.setFileSize(stored.size());
+                }
+                assignmentSubmission.setFileName(file.getOriginalFilename());
+                assignmentSubmission.setFileContentType(SubmissionFileStore.normalizeContentType(file.getContentType()));
+            }
+
+            submissionRepository.save(assignmentSubmission);
+            similarityIndex.add(assignmentSubmission);
             return ResponseEntity.ok(Map.of("message", "Assignment submitted successfully"));
+        } catch (SubmissionFileStore.FileTooLargeException e) {
+            return ResponseEntity.status(413).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
     }
 
     @GetMapping("/marks")
-    public ResponseEntity<?> getMarks(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getMarks(CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
-            List<Mark> marks = markRepository.findByStudentId(user.getId());
-            Double cgpa = markRepository.calculateCGPA(user.getId());
-            if (cgpa == null) cgpa = 0.0;
+            List<Mark> marks = markRepository.findByStudentId(user.id());
+            GpaEngine.StudentGpa gpa = gpaEngine.get(user.id());
 
             Map<String, Object> result = new HashMap<>();
             result.put("marks", marks);
-            result.put("cgpa", Math.round(cgpa * 100.0) / 100.0);
+            result.put("cgpa", gpa.cgpa());
+            result.put("sgpa", gpa.sgpa());
 
             return ResponseEntity.ok(result);
         } catch (Exception e) {
@@ -191,17 +278,28 @@ public class StudentController {
         }
     }
 
+    @GetMapping("/rank")
+    public ResponseEntity<?> getRank(@RequestParam(required = false) String semester, CurrentUser user) {
+        try {
+            if (user == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
+            }
+            return ResponseEntity.ok(cohortRanks.rankOf(user.id(), semester));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/fees")
-    public ResponseEntity<?> getFees(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getFees(CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
-            List<Fee> fees = feeRepository.findByStudentId(user.getId());
-            BigDecimal totalPaid = feeRepository.calculateTotalPaid(user.getId());
-            BigDecimal totalPending = feeRepository.calculateTotalPending(user.getId());
+            List<Fee> fees = feeRepository.findByStudentId(user.id());
+            BigDecimal totalPaid = feeRepository.calculateTotalPaid(user.id());
+            BigDecimal totalPending = feeRepository.calculateTotalPending(user.id());
 
             Map<String, Object> result = new HashMap<>();
             result.put("fees", fees);
@@ -215,15 +313,14 @@ public class StudentController {
     }
 
     @PostMapping("/feedback")
-    public ResponseEntity<?> submitFeedback(@RequestBody Map<String, String> feedback, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> submitFeedback(@RequestBody Map<String, String> feedback, CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
             Feedback newFeedback = new Feedback();
-            newFeedback.setStudentId(user.getId());
+            newFeedback.setStudentId(user.id());
             newFeedback.setTitle(feedback.get("title"));
             newFeedback.setMessage(feedback.get("message"));
             newFeedback.setCategory(Feedback.Category.valueOf(feedback.get("category")));
@@ -236,9 +333,13 @@ public class StudentController {
     }
 
     @GetMapping("/notifications")
-    public ResponseEntity<?> getNotifications(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getNotifications(CurrentUser user) {
         try {
-            List<Notification> notifications = notificationRepository.findByTargetRoleOrAll(Notification.TargetRole.STUDENT);
+            if (user == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
+            }
+
+            List<Notification> notifications = notificationRepository.findVisibleTo(user.id(), Notification.TargetRole.STUDENT, Limit.unlimited());
             return ResponseEntity.ok(notifications);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -246,23 +347,22 @@ public class StudentController {
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<?> getProfile(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getProfile(CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
             // Try to find student profile, if not found create mock data
-            Student student = studentRepository.findByEmail(user.getUsername()).orElse(null);
+            Student student = studentRepository.findByEmail(user.username()).orElse(null);
             if (student == null) {
                 // Create mock student profile
                 Map<String, Object> mockProfile = new HashMap<>();
-                mockProfile.put("id", user.getId());
+                mockProfile.put("id", user.id());
                 mockProfile.put("name", "John Doe");
                 mockProfile.put("rollNumber", "CS2023001");
                 mockProfile.put("department", "Computer Science");
-                mockProfile.put("email", user.getUsername());
+                mockProfile.put("email", user.username());
                 mockProfile.put("phone", "+91 9876543210");
                 mockProfile.put("address", "123 Main Street, City, State");
                 mockProfile.put("cgpa", 8.5);
@@ -281,9 +381,8 @@ public class StudentController {
     }
 
     @GetMapping("/timetable/today")
-    public ResponseEntity<?> getTodayTimetable(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getTodayTimetable(CurrentUser user) {
         try {
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
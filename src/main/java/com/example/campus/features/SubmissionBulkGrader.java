@@ -0,0 +1,144 @@
+package com.example.campus.features;
+
+import com.example.campus.entity.Assignment;
+import com.example.campus.entity.AssignmentSubmission;
+import com.example.campus.repository.AssignmentRepository;
+import com.example.campus.repository.AssignmentSubmissionRepository;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Grades many submissions of one assignment at once: the submissions are loaded with a
+ * single IN query, each grade is checked against the assignment's maxMarks, and the valid
+ * ones are written as one JDBC batch in one transaction.
+ */
+@Component
+public class SubmissionBulkGrader {
+
+    private static final String GRADE_SQL = "UPDATE assignment_submissions SET marks_obtained = ?, feedback = ?, " +
+            "graded_by = ?, graded_at = ?, status = ? WHERE id = ?";
+
+    private final AssignmentRepository assignmentRepository;
+    private final AssignmentSubmissionRepository submissionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public SubmissionBulkGrader(AssignmentRepository assignmentRepository,
+                                AssignmentSubmissionRepository submissionRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager) {
+        this.assignmentRepository = assignmentRepository;
+        this.submissionRepository = submissionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Returns a summary with one result per input row, or null if the assignment does not exist.
+     */
+    public Map<String, Object> grade(Long assignmentId, List<Map<String, Object>> grades, String gradedBy) {
+        Assignment assignment = assignmentRepository.findById(assignmentId).orElse(null);
+        if (assignment == null) {
+            return null;
+        }
+
+        Map<Long, AssignmentSubmission> submissions = new HashMap<>();
+        List<Long> ids = grades.stream()
+                .map(g -> parseId(g.get("submissionId")))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        for (AssignmentSubmission submission : submissionRepository.findAllById(ids)) {
+            submissions.put(submission.getId(), submission);
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>(grades.size());
+        Map<Long, Integer> rowOfSubmission = new HashMap<>();
+        List<Object[]> updates = new ArrayList<>();
+        Date today = Date.valueOf(LocalDate.now());
+        for (int i = 0; i < grades.size(); i++) {
+            Map<String, Object> grade = grades.get(i);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("row", i + 1);
+            result.put("submissionId", grade.get("submissionId"));
+            results.add(result);
+
+            Long submissionId = parseId(grade.get("submissionId"));
+            Integer marks = parseMarks(grade.get("marks"));
+            String error = null;
+            if (submissionId == null) {
+                error = "submissionId is required and must be a number";
+            } else if (marks == null) {
+                error = "marks is required and must be a whole number";
+            } else {
+                AssignmentSubmission submission = submissions.get(submissionId);
+                if (submission == null || !assignmentId.equals(submission.getAssignmentId())) {
+                    error = "Submission not found for this assignment";
+                } else if (marks < 0) {
+                    error = "marks must not be negative";
+                } else if (assignment.getMaxMarks() != null && marks > assignment.getMaxMarks()) {
+                    error = "marks must not exceed maxMarks (" + assignment.getMaxMarks() + ")";
+                } else if (rowOfSubmission.putIfAbsent(submissionId, i + 1) != null) {
+                    error = "Duplicate of row " + rowOfSubmission.get(submissionId);
+                }
+            }
+            if (error != null) {
+                result.put("status", "error");
+                result.put("error", error);
+                continue;
+            }
+            Object feedback = grade.get("feedback");
+            updates.add(new Object[] { marks, feedback != null ? feedback.toString() : null, gradedBy, today,
+                    AssignmentSubmission.SubmissionStatus.GRADED.name(), submissionId });
+            result.put("status", "graded");
+        }
+
+        if (!updates.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(GRADE_SQL, updates));
+            } catch (RuntimeException e) {
+                for (Map<String, Object> result : results) {
+                    if ("graded".equals(result.get("status"))) {
+                        result.put("status", "error");
+                        result.put("error", "Grades not saved: " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        Map<Object, Long> byStatus = results.stream().collect(Collectors.groupingBy(r -> r.get("status"), Collectors.counting()));
+        summary.put("processed", grades.size());
+        summary.put("graded", byStatus.getOrDefault("graded", 0L));
+        summary.put("failed", byStatus.getOrDefault("error", 0L));
+        summary.put("results", results);
+        return summary;
+    }
+
+    private static Integer parseMarks(Object value) {
+        try {
+            return value != null ? Integer.valueOf(value.toString()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Long parseId(Object value) {
+        try {
+            return value != null ? Long.valueOf(value.toString()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.campus.features;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Content-addressed store for submission files. Uploads are streamed to a temporary file
+ * while their SHA-256 is computed, then moved to objects/&lt;first two hex digits&gt;/&lt;digest&gt;;
+ * identical files are stored once. The stored path, relative to the store root, is what
+ * {@code AssignmentSubmission.filePath} holds.
+ */
+@Component
+public class SubmissionFileStore {
+
+    public record StoredFile(String path, long size) {}
+
+    public static class FileTooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public FileTooLargeException(long limit) {
+            super("File exceeds the " + limit + " byte limit");
+        }
+    }
+
+    private static final Pattern OBJECT_PATH = Pattern.compile("objects/[0-9a-f]{2}/[0-9a-f]{64}");
+
+    @Value("${app.submissions.storage-dir:data/submissions}")
+    private String storageDir;
+
+    @Value("${app.submissions.max-file-bytes:26214400}")
+    private long maxFileBytes;
+
+    private Path root;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(storageDir).toAbsolutePath().normalize();
+        Files.createDirectories(root.resolve("tmp"));
+        Files.createDirectories(root.resolve("objects"));
+    }
+
+    public StoredFile store(InputStream content) throws IOException {
+        Path temp = Files.createTempFile(root.resolve("tmp"), "upload-", ".part");
+        try {
+            MessageDigest sha256 = sha256();
+            long size = 0;
+            byte[] buffer = new byte[64 * 1024];
+            try (InputStream in = new DigestInputStream(content, sha256);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxFileBytes) {
+                        throw new FileTooLargeException(maxFileBytes);
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            String digest = HexFormat.of().formatHex(sha256.digest());
+            String path = "objects/" + digest.substring(0, 2) + "/" + digest;
+            Path target = root.resolve(path);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Stored concurrently by another upload of the same content
+                }
+            }
+            return new StoredFile(path, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Absolute path of a stored file, or null if the path is not one this store wrote.
+     */
+    public Path resolve(String path) {
+        if (path == null || !OBJECT_PATH.matcher(path).matches()) {
+            return null;
+        }
+        Path file = root.resolve(path);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    /**
+     * The client-supplied content type in canonical form, or null when it is missing,
+     * malformed or a wildcard, so only types that can be served back are stored.
+     */
+    public static String normalizeContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return null;
+        }
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            return type.isConcrete() ? type.toString() : null;
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
+
+    // Types are normalized on upload; anything older that does not parse is served as octet-stream
+    public static MediaType mediaTypeOf(String contentType) {
+        String normalized = normalizeContentType(contentType);
+        return normalized != null ? MediaType.parseMediaType(normalized) : MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    public long getMaxFileBytes() {
+        return maxFileBytes;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.campus.features;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timer wheel with four levels of 64 slots. A tick on level 0 is one time
+ * unit, and each higher level's slot spans 64 slots of the level below. Scheduling drops the
+ * timer straight into a slot, and each tick fires one level-0 slot. Every 64 ticks the
+ * next level-1 slot is cascaded down, and likewise for higher levels, so a timer is moved
+ * at most once per level. Timers beyond the top level's range wait in its slots and are
+ * re-placed when their slot comes round.
+ */
+final class TimerWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private record Timer<T>(long deadline, T task) {}
+
+    private final List<List<List<Timer<T>>>> levels = new ArrayList<>(LEVELS);
+    private long now;
+    private int size;
+
+    TimerWheel(long now) {
+        this.now = now;
+        for (int level = 0; level < LEVELS; level++) {
+            List<List<Timer<T>>> slots = new ArrayList<>(SLOTS);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots.add(new ArrayList<>());
+            }
+            levels.add(slots);
+        }
+    }
+
+    synchronized void schedule(long deadline, T task) {
+        place(new Timer<>(Math.max(deadline, now + 1), task));
+        size++;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Advances the wheel to the given time, handing every timer that fell due to the
+     * consumer, in deadline order by tick.
+     */
+    void advanceTo(long time, Consumer<T> fire) {
+        while (true) {
+            List<Timer<T>> due;
+            synchronized (this) {
+                if (now >= time) {
+                    return;
+                }
+                now++;
+                for (int level = LEVELS - 1; level > 0; level--) {
+                    if ((now & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                        cascade(level);
+                    }
+                }
+                List<Timer<T>> slot = levels.get(0).get((int) (now & MASK));
+                due = new ArrayList<>(slot);
+                slot.clear();
+                size -= due.size();
+            }
+            for (Timer<T> timer : due) {
+                fire.accept(timer.task());
+            }
+        }
+    }
+
+    private void cascade(int level) {
+        List<Timer<T>> slot = levels.get(level).get((int) ((now >>> (SLOT_BITS * level)) & MASK));
+        List<Timer<T>> timers = new ArrayList<>(slot);
+        slot.clear();
+        timers.forEach(this::place);
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.deadline() - now;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        // Due now (only while cascading) goes in the slot about to fire; beyond the top level waits in its furthest slot
+        long at = delta <= 0 ? now
+                : level == LEVELS - 1 && delta >= 1L << (SLOT_BITS * LEVELS) ? now + (1L << (SLOT_BITS * LEVELS)) - 1
+                : timer.deadline();
+        levels.get(level).get((int) ((at >>> (SLOT_BITS * level)) & MASK)).add(timer);
+    }
+}
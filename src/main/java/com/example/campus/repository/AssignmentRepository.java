@@ -1,13 +1,18 @@
 package com.example.campus.repository;
 
 import com.example.campus.entity.Assignment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
@@ -19,4 +24,26 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
 
     @Query("SELECT a FROM Assignment a WHERE a.dueDate < :currentTime ORDER BY a.dueDate DESC")
     List<Assignment> findPastAssignments(@Param("currentTime") LocalDate currentTime);
-}
\ No newline at end of file
+
+    // One student's assignments with their latest submission, keyset-paged by (dueDate, id) over idx_assignments_due_date
+    @Query("SELECT new com.example.campus.repository.StudentAssignmentView(a.id, a.title, a.description, a.subject, " +
+           "a.assignedBy, a.dueDate, a.maxMarks, s.id, s.status, s.submittedAt, s.marksObtained, s.gradedAt) " +
+           "FROM Assignment a LEFT JOIN AssignmentSubmission s ON s.id = (SELECT MAX(s2.id) FROM AssignmentSubmission s2 " +
+           "WHERE s2.assignmentId = a.id AND s2.studentId = :studentId) " +
+           "WHERE a.dueDate > :afterDueDate OR (a.dueDate = :afterDueDate AND a.id > :afterId) ORDER BY a.dueDate, a.id")
+    List<StudentAssignmentView> findStudentAssignments(@Param("studentId") Long studentId,
+                                                       @Param("afterDueDate") LocalDate afterDueDate,
+                                                       @Param("afterId") Long afterId, Limit limit);
+
+    // Streams the admin assignments report row by row; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Assignment a WHERE (:from IS NULL OR a.dueDate >= :from) AND (:to IS NULL OR a.dueDate <= :to) " +
+           "AND (:department IS NULL AND :semester IS NULL OR EXISTS (SELECT s.id FROM Subject s " +
+           "WHERE (s.subjectName = a.subject OR s.subjectCode = a.subject) " +
+           "AND (:department IS NULL OR s.department = :department) AND (:semester IS NULL OR s.semester = :semester))) ORDER BY a.id")
+    Stream<Assignment> streamForReport(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                       @Param("department") String department, @Param("semester") String semester);
+}
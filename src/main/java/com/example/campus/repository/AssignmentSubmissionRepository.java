@@ -17,6 +17,10 @@ public interface AssignmentSubmissionRepository extends JpaRepository<Assignment
     // 🔹 Faculty: View all submissions for a specific assignment
     List<AssignmentSubmission> findByAssignmentId(Long assignmentId);
 
+    // 🔹 Reminders: Students who have already submitted an assignment
+    @Query("SELECT s.studentId FROM AssignmentSubmission s WHERE s.assignmentId = :assignmentId")
+    List<Long> findStudentIdsByAssignmentId(@Param("assignmentId") Long assignmentId);
+
     // 🔹 Faculty/Student: Find specific submission (unique student+assignment)
     @Query("SELECT s FROM AssignmentSubmission s " +
             "WHERE s.assignmentId = :assignmentId AND s.studentId = :studentId")
@@ -32,4 +36,10 @@ public interface AssignmentSubmissionRepository extends JpaRepository<Assignment
     @Query("SELECT s FROM AssignmentSubmission s " +
             "WHERE s.status = 'GRADED' AND s.assignmentId = :assignmentId")
     List<AssignmentSubmission> findGradedSubmissionsByAssignment(@Param("assignmentId") Long assignmentId);
+
+    // 🔹 Faculty: Count submissions awaiting review across every assignment they created
+    @Query("SELECT COUNT(s) FROM AssignmentSubmission s, Assignment a " +
+            "WHERE s.assignmentId = a.id AND a.assignedBy = :assignedBy " +
+            "AND s.status = com.example.campus.entity.AssignmentSubmission.SubmissionStatus.SUBMITTED")
+    long countPendingSubmissionsByAssignedBy(@Param("assignedBy") String assignedBy);
 }
@@ -1,13 +1,19 @@
 package com.example.campus.repository;
 
 import com.example.campus.entity.Attendance;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
@@ -23,4 +29,25 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     
     @Query("SELECT COUNT(a) FROM Attendance a WHERE a.studentId = :studentId AND a.subject = :subject")
     Long countTotalByStudentAndSubject(@Param("studentId") Long studentId, @Param("subject") String subject);
+
+    // Served by idx_attendance_subject_date
+    Slice<Attendance> findBySubjectAndDateBetween(String subject, LocalDate from, LocalDate to, Pageable pageable);
+
+    // Rows of [studentId, present, total] for a class within a date range
+    @Query("SELECT a.studentId, SUM(CASE WHEN a.status = 'PRESENT' THEN 1 ELSE 0 END), COUNT(a) FROM Attendance a " +
+           "WHERE a.subject = :subject AND a.date BETWEEN :from AND :to GROUP BY a.studentId ORDER BY a.studentId")
+    List<Object[]> summarizeBySubjectAndDateBetween(@Param("subject") String subject, @Param("from") LocalDate from,
+                                                    @Param("to") LocalDate to, Pageable pageable);
+
+    // Streams the admin attendance report row by row; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Attendance a WHERE (:from IS NULL OR a.date >= :from) AND (:to IS NULL OR a.date <= :to) " +
+           "AND (:department IS NULL AND :semester IS NULL OR EXISTS (SELECT s.id FROM Subject s " +
+           "WHERE (s.subjectName = a.subject OR s.subjectCode = a.subject) " +
+           "AND (:department IS NULL OR s.department = :department) AND (:semester IS NULL OR s.semester = :semester))) ORDER BY a.id")
+    Stream<Attendance> streamForReport(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                       @Param("department") String department, @Param("semester") String semester);
 }
@@ -0,0 +1,17 @@
+package com.example.campus.repository;
+
+import com.example.campus.entity.AttendanceSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AttendanceSummaryRepository extends JpaRepository<AttendanceSummary, Long> {
+    List<AttendanceSummary> findBySubject(String subject);
+    List<AttendanceSummary> findBySubjectOrderByStudentId(String subject, Pageable pageable);
+    List<AttendanceSummary> findByStudentId(Long studentId);
+    Optional<AttendanceSummary> findByStudentIdAndSubject(Long studentId, String subject);
+}
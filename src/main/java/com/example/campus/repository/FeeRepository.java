@@ -1,13 +1,18 @@
 package com.example.campus.repository;
 
 import com.example.campus.entity.Fee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface FeeRepository extends JpaRepository<Fee, Long> {
@@ -19,4 +24,12 @@ public interface FeeRepository extends JpaRepository<Fee, Long> {
     
     @Query("SELECT SUM(f.amount) FROM Fee f WHERE f.studentId = :studentId AND f.status = 'PENDING'")
     BigDecimal calculateTotalPending(@Param("studentId") Long studentId);
+
+    // Streams the admin fees report row by row; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT f FROM Fee f WHERE (:from IS NULL OR f.dueDate >= :from) AND (:to IS NULL OR f.dueDate <= :to) ORDER BY f.id")
+    Stream<Fee> streamForReport(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
@@ -1,22 +1,36 @@
 package com.example.campus.repository;
 
 import com.example.campus.entity.Mark;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MarkRepository extends JpaRepository<Mark, Long> {
     List<Mark> findByStudentId(Long studentId);
     List<Mark> findByStudentIdAndSubject(Long studentId, String subject);
     List<Mark> findByStudentIdAndSemester(Long studentId, String semester);
-    
-    @Query("SELECT AVG(m.marksObtained) FROM Mark m WHERE m.studentId = :studentId AND m.semester = :semester")
-    Double calculateSGPA(@Param("studentId") Long studentId, @Param("semester") String semester);
-    
-    @Query("SELECT AVG(m.marksObtained) FROM Mark m WHERE m.studentId = :studentId")
-    Double calculateCGPA(@Param("studentId") Long studentId);
+    List<Mark> findBySubject(String subject);
+    List<Mark> findByStudentIdInAndSubjectIn(Collection<Long> studentIds, Collection<String> subjects);
+
+    // Streams the admin marks report row by row; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Mark m WHERE (:from IS NULL OR m.createdAt >= :from) AND (:to IS NULL OR m.createdAt < :to) " +
+           "AND (:semester IS NULL OR m.semester = :semester) " +
+           "AND (:department IS NULL OR EXISTS (SELECT s.id FROM Subject s " +
+           "WHERE (s.subjectName = m.subject OR s.subjectCode = m.subject) AND s.department = :department)) ORDER BY m.id")
+    Stream<Mark> streamForReport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                 @Param("department") String department, @Param("semester") String semester);
 }
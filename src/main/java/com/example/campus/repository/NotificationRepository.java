@@ -1,6 +1,7 @@
 package com.example.campus.repository;
 
 import com.example.campus.entity.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,6 +18,8 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     List<Notification> findByIsRead(Boolean isRead);
 
-    @Query("SELECT n FROM Notification n WHERE n.targetRole = :role OR n.targetRole = com.example.campus.entity.Notification.TargetRole.ALL ORDER BY n.createdAt DESC")
-    List<Notification> findByTargetRoleOrAll(@Param("role") Notification.TargetRole role);
+    // A user's feed: notices addressed to them, plus broadcasts to their role or to everyone
+    @Query("SELECT n FROM Notification n WHERE n.targetUserId = :userId OR (n.targetUserId IS NULL " +
+           "AND n.targetRole IN (:role, com.example.campus.entity.Notification.TargetRole.ALL)) ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findVisibleTo(@Param("userId") Long userId, @Param("role") Notification.TargetRole role, Limit limit);
 }
@@ -0,0 +1,14 @@
+package com.example.campus.repository;
+
+import com.example.campus.entity.AssignmentSubmission;
+import java.time.LocalDate;
+
+/**
+ * An assignment as one student sees it, with their own submission joined in. The
+ * submission fields are null when the student has not submitted.
+ */
+public record StudentAssignmentView(Long id, String title, String description, String subject, String assignedBy,
+                                    LocalDate dueDate, Integer maxMarks, Long submissionId,
+                                    AssignmentSubmission.SubmissionStatus status, LocalDate submittedAt,
+                                    Integer marksObtained, LocalDate gradedAt) {
+}
@@ -2,7 +2,10 @@ package com.example.campus.repository;
 
 import com.example.campus.entity.Subject;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +16,7 @@ public interface SubjectRepository extends JpaRepository<Subject, Long> {
     List<Subject> findBySemester(String semester);
     List<Subject> findByAcademicYear(String academicYear);
     boolean existsBySubjectCode(String subjectCode);
+
+    @Query("SELECT s FROM Subject s WHERE s.subjectName IN :names OR s.subjectCode IN :names")
+    List<Subject> findByNameOrCode(@Param("names") Collection<String> names);
 }
@@ -0,0 +1,78 @@
+package com.example.campus.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BCrypt encoder whose cost is picked at startup so one hash takes about the target time
+ * on the current hardware. Hashes stored with any other cost still match; cheaper ones report
+ * {@link #upgradeEncoding} so they are rewritten at the calibrated cost on the next login.
+ * Stronger hashes are left alone, so nodes that calibrate differently never downgrade them.
+ */
+public class CalibratedPasswordEncoder implements PasswordEncoder {
+
+	private final int strength;
+	private final BCryptPasswordEncoder delegate;
+
+	public CalibratedPasswordEncoder(int strength) {
+		this.strength = strength;
+		this.delegate = new BCryptPasswordEncoder(strength);
+	}
+
+	/**
+	 * Returns the highest cost in [minStrength, maxStrength] whose hash time stays within
+	 * targetMs, never going below minStrength.
+	 */
+	public static int calibrate(long targetMs, int minStrength, int maxStrength) {
+		int chosen = minStrength;
+		for (int strength = minStrength; strength <= maxStrength; strength++) {
+			BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+			encoder.encode("calibration-warmup");
+			long start = System.nanoTime();
+			encoder.encode("calibration-sample");
+			long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+			if (elapsedMs > targetMs) {
+				break;
+			}
+			chosen = strength;
+			// Each step doubles the cost, stop before the next one would take too long
+			if (elapsedMs * 2 > targetMs) {
+				break;
+			}
+		}
+		return chosen;
+	}
+
+	public int getStrength() {
+		return strength;
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return delegate.encode(rawPassword);
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return delegate.matches(rawPassword, encodedPassword);
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		int cost = costOf(encodedPassword);
+		return cost > 0 && cost < strength;
+	}
+
+	// "$2a$10$..." -> 10, or -1 when the value is not a BCrypt hash
+	private static int costOf(String encodedPassword) {
+		if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+				|| encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+			return -1;
+		}
+		try {
+			return Integer.parseInt(encodedPassword.substring(4, 6));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+}
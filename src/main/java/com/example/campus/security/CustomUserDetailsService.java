@@ -6,12 +6,13 @@ import java.util.List;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
 	private final UserRepository userRepository;
 
@@ -30,6 +31,19 @@ public class CustomUserDetailsService implements UserDetailsService {
 				authorities
 		);
 	}
+
+	// Called by the authentication provider after a successful login when the stored hash
+	// was made with a different BCrypt cost than the current encoder uses
+	@Override
+	public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+		User user = userRepository.findByUsername(userDetails.getUsername())
+			.orElseThrow(() -> new UsernameNotFoundException("User not found in database"));
+		user.setPassword(newPassword);
+		userRepository.save(user);
+		return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+				.password(newPassword)
+				.build();
+	}
 }
 
 
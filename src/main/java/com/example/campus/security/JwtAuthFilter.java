@@ -1,11 +1,15 @@
 package com.example.campus.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -18,10 +22,16 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
 	private final JwtService jwtService;
 	private final UserDetailsService userDetailsService;
+	private final TokenRevocationList revocationList;
 
-	public JwtAuthFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+	// When true, authenticate from the verified claims without loading the user from the database
+	@Value("${app.jwt.stateless:false}")
+	private boolean stateless;
+
+	public JwtAuthFilter(JwtService jwtService, UserDetailsService userDetailsService, TokenRevocationList revocationList) {
 		this.jwtService = jwtService;
 		this.userDetailsService = userDetailsService;
+		this.revocationList = revocationList;
 	}
 
 	@Override
@@ -30,14 +40,19 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 		String authHeader = request.getHeader("Authorization");
 		if (authHeader != null && authHeader.startsWith("Bearer ")) {
 			String jwt = authHeader.substring(7);
-			String username = null;
+			Claims claims = null;
 			try {
-				username = jwtService.extractUsername(jwt);
+				claims = jwtService.extractAllClaims(jwt);
 			} catch (Exception ignored) {}
 
-			if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-				UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-				if (jwtService.isTokenValid(jwt, userDetails)) {
+			String username = claims != null ? claims.getSubject() : null;
+			if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+					&& !revocationList.isRevoked(username, claims.getIssuedAt())) {
+				UserDetails userDetails = stateless ? fromClaims(claims) : null;
+				if (userDetails == null) {
+					userDetails = userDetailsService.loadUserByUsername(username);
+				}
+				if (jwtService.isTokenValid(claims, userDetails)) {
 					UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
 							userDetails, null, userDetails.getAuthorities());
 					authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -54,4 +69,16 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 		// ❌ Typo here: should be filterChain, not filterhain
 		filterChain.doFilter(request, response);
 	}
+
+	// Tokens issued before the uid claim existed fall back to the database lookup
+	private UserDetails fromClaims(Claims claims) {
+		Object role = claims.get("role");
+		Object uid = claims.get("uid");
+		if (role == null || uid == null) {
+			return null;
+		}
+		String authority = role.toString().startsWith("ROLE_") ? role.toString() : "ROLE_" + role;
+		return new JwtUserDetails(Long.valueOf(uid.toString()), claims.getSubject(),
+				List.of(new SimpleGrantedAuthority(authority)));
+	}
 }
@@ -1,17 +1,24 @@
 package com.example.campus.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Service
@@ -23,6 +30,32 @@ public class JwtService {
 	@Value("${app.jwt.expiration-ms:86400000}") // 1 day default
 	private long expirationMs;
 
+	// Max number of verified tokens kept in memory
+	@Value("${app.jwt.cache-size:10000}")
+	private int cacheSize;
+
+	// Built once at startup instead of per parse
+	private Key signingKey;
+	private JwtParser parser;
+
+	// Verified claims keyed by SHA-256 of the token, least recently used evicted first
+	private Map<String, Claims> verifiedTokens;
+
+	@PostConstruct
+	void init() {
+		byte[] keyBytes = Decoders.BASE64.decode(secret);
+		this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+		this.parser = Jwts.parserBuilder()
+				.setSigningKey(signingKey)
+				.build();
+		this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+				return size() > cacheSize;
+			}
+		};
+	}
+
 	// ✅ Generate token with extra claims (e.g., role)
 	public String generateToken(UserDetails userDetails, Map<String, Object> extraClaims) {
 		Date now = new Date();
@@ -33,7 +66,7 @@ public class JwtService {
 				.setSubject(userDetails.getUsername())
 				.setIssuedAt(now)
 				.setExpiration(expiry)
-				.signWith(getSigningKey(), SignatureAlgorithm.HS256)
+				.signWith(signingKey, SignatureAlgorithm.HS256)
 				.compact();
 	}
 
@@ -49,24 +82,49 @@ public class JwtService {
 	}
 
 	public boolean isTokenValid(String token, UserDetails userDetails) {
-		String username = extractUsername(token);
-		return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+		return isTokenValid(extractAllClaims(token), userDetails);
 	}
 
-	private boolean isTokenExpired(String token) {
-		return extractAllClaims(token).getExpiration().before(new Date());
+	public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+		return claims.getSubject().equals(userDetails.getUsername()) && !isExpired(claims);
 	}
 
+	/**
+	 * Returns the verified claims of the token. The signature is checked only the first
+	 * time a token is seen; later calls are served from memory until the token expires.
+	 */
 	public Claims extractAllClaims(String token) {
-		return Jwts.parserBuilder()
-				.setSigningKey(getSigningKey())
-				.build()
-				.parseClaimsJws(token)
-				.getBody();
+		String digest = digest(token);
+		Claims claims;
+		synchronized (verifiedTokens) {
+			claims = verifiedTokens.get(digest);
+			if (claims != null && isExpired(claims)) {
+				verifiedTokens.remove(digest);
+				claims = null;
+			}
+		}
+		if (claims != null) {
+			return claims;
+		}
+
+		claims = parser.parseClaimsJws(token).getBody();
+		synchronized (verifiedTokens) {
+			verifiedTokens.put(digest, claims);
+		}
+		return claims;
 	}
 
-	private Key getSigningKey() {
-		byte[] keyBytes = Decoders.BASE64.decode(secret);
-		return Keys.hmacShaKeyFor(keyBytes);
+	private boolean isExpired(Claims claims) {
+		Date expiration = claims.getExpiration();
+		return expiration != null && expiration.before(new Date());
+	}
+
+	private String digest(String token) {
+		try {
+			MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
 	}
 }
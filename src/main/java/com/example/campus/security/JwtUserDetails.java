@@ -0,0 +1,24 @@
+package com.example.campus.security;
+
+import java.util.Collection;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Principal built straight from verified token claims when running in stateless mode.
+ */
+public class JwtUserDetails extends User {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Long id;
+
+	public JwtUserDetails(Long id, String username, Collection<? extends GrantedAuthority> authorities) {
+		super(username, "", authorities);
+		this.id = id;
+	}
+
+	public Long getId() {
+		return id;
+	}
+}
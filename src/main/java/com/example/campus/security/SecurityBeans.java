@@ -1,16 +1,22 @@
 package com.example.campus.security;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class SecurityBeans {
+	private static final Logger log = LoggerFactory.getLogger(SecurityBeans.class);
+
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.target-ms:50}") long targetMs,
+										   @Value("${app.security.bcrypt.min-strength:10}") int minStrength,
+										   @Value("${app.security.bcrypt.max-strength:16}") int maxStrength) {
+		int strength = CalibratedPasswordEncoder.calibrate(targetMs, minStrength, maxStrength);
+		log.info("BCrypt cost calibrated to {} for a {} ms target", strength, targetMs);
+		return new CalibratedPasswordEncoder(strength);
 	}
 }
-
-
@@ -0,0 +1,37 @@
+package com.example.campus.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory list of users whose tokens were invalidated (role change, password reset, delete).
+ * Any token issued before the revocation time is rejected by {@link JwtAuthFilter}.
+ */
+@Component
+public class TokenRevocationList {
+
+	@Value("${app.jwt.expiration-ms:86400000}")
+	private long expirationMs;
+
+	private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+
+	public void revoke(String username) {
+		long now = System.currentTimeMillis();
+		revokedAt.put(username, now);
+		// Entries older than the token lifetime can no longer match a live token
+		revokedAt.values().removeIf(at -> at < now - expirationMs);
+	}
+
+	public boolean isRevoked(String username, Date issuedAt) {
+		Long at = revokedAt.get(username);
+		if (at == null) {
+			return false;
+		}
+		// iat only has second precision, so round the revocation time down as well
+		return issuedAt == null || issuedAt.getTime() <= at - (at % 1000);
+	}
+}
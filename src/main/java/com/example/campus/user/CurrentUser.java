@@ -0,0 +1,12 @@
+package com.example.campus.user;
+
+/**
+ * Lightweight view of the authenticated user, injected into controller methods
+ * by {@link CurrentUserResolver} instead of looking the user up in every handler.
+ */
+public record CurrentUser(Long id, String username, Role role, String studentId) {
+
+	static CurrentUser of(User user) {
+		return new CurrentUser(user.getId(), user.getUsername(), user.getRole(), user.getStudentId());
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.campus.user;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link CurrentUser} handler arguments. The user is looked up at most once per
+ * request and kept in a short-lived cache shared across requests; admin updates evict it.
+ * Resolves to null when the request is not authenticated or the user no longer exists.
+ */
+@Component
+public class CurrentUserResolver implements HandlerMethodArgumentResolver {
+
+	private static final String REQUEST_ATTRIBUTE = CurrentUser.class.getName();
+
+	private record Entry(CurrentUser user, long expiresAt) {}
+
+	private final UserRepository userRepository;
+	private final long ttlMs;
+	private final Map<String, Entry> cache;
+
+	public CurrentUserResolver(UserRepository userRepository,
+							   @Value("${app.current-user.ttl-ms:30000}") long ttlMs,
+							   @Value("${app.current-user.cache-size:10000}") int cacheSize) {
+		this.userRepository = userRepository;
+		this.ttlMs = ttlMs;
+		// Access-ordered, so the least recently used user is dropped once the cache is full
+		this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > cacheSize;
+			}
+		});
+	}
+
+	@Override
+	public boolean supportsParameter(MethodParameter parameter) {
+		return parameter.getParameterType() == CurrentUser.class;
+	}
+
+	@Override
+	public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+								  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+		Object resolved = webRequest.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		if (resolved != null) {
+			return resolved;
+		}
+
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated()
+				|| authentication instanceof AnonymousAuthenticationToken) {
+			return null;
+		}
+
+		CurrentUser user = lookup(authentication.getName());
+		if (user != null) {
+			webRequest.setAttribute(REQUEST_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+		}
+		return user;
+	}
+
+	public CurrentUser lookup(String username) {
+		long now = System.currentTimeMillis();
+		Entry entry = cache.get(username);
+		if (entry != null && entry.expiresAt() > now) {
+			return entry.user();
+		}
+
+		CurrentUser user = userRepository.findByUsername(username).map(CurrentUser::of).orElse(null);
+		if (user == null) {
+			cache.remove(username);
+			return null;
+		}
+		cache.put(username, new Entry(user, now + ttlMs));
+		return user;
+	}
+
+	public void evict(String username) {
+		cache.remove(username);
+	}
+}
@@ -0,0 +1,21 @@
+package com.example.campus.user;
+
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class CurrentUserWebConfig implements WebMvcConfigurer {
+
+	private final CurrentUserResolver currentUserResolver;
+
+	public CurrentUserWebConfig(CurrentUserResolver currentUserResolver) {
+		this.currentUserResolver = currentUserResolver;
+	}
+
+	@Override
+	public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+		resolvers.add(currentUserResolver);
+	}
+}
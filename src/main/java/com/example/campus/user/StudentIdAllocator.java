@@ -0,0 +1,93 @@
+package com.example.campus.user;
+
+import java.time.Year;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out student IDs (STU + 2-digit year + number) from blocks reserved in
+ * student_id_sequences, so concurrent signups never share an ID and only one in every
+ * block-size allocations touches the database.
+ */
+@Component
+public class StudentIdAllocator {
+
+	private record Block(String prefix, AtomicLong next, long end) {}
+
+	private final StudentIdSequenceRepository sequenceRepository;
+	private final UserRepository userRepository;
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${app.student-id.block-size:50}")
+	private int blockSize;
+
+	private volatile Block current;
+
+	public StudentIdAllocator(StudentIdSequenceRepository sequenceRepository,
+							  UserRepository userRepository,
+							  PlatformTransactionManager transactionManager) {
+		this.sequenceRepository = sequenceRepository;
+		this.userRepository = userRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	public String next() {
+		String prefix = "STU" + String.valueOf(Year.now().getValue()).substring(2);
+		while (true) {
+			Block block = current;
+			if (block != null && block.prefix().equals(prefix)) {
+				long value = block.next().getAndIncrement();
+				if (value < block.end()) {
+					return prefix + String.format("%04d", value);
+				}
+			}
+			synchronized (this) {
+				if (current == block) {
+					current = reserve(prefix);
+				}
+			}
+		}
+	}
+
+	private Block reserve(String prefix) {
+		try {
+			return transactionTemplate.execute(status -> reserveInTransaction(prefix));
+		} catch (DataIntegrityViolationException e) {
+			// Another instance created the sequence row first, it exists now
+			return transactionTemplate.execute(status -> reserveInTransaction(prefix));
+		}
+	}
+
+	private Block reserveInTransaction(String prefix) {
+		StudentIdSequence sequence = sequenceRepository.findForUpdate(prefix).orElse(null);
+		if (sequence == null) {
+			sequence = new StudentIdSequence();
+			sequence.setPrefix(prefix);
+			sequence.setNextValue(firstFreeNumber(prefix));
+		}
+		long start = sequence.getNextValue();
+		sequence.setNextValue(start + blockSize);
+		sequenceRepository.saveAndFlush(sequence);
+		return new Block(prefix, new AtomicLong(start), start + blockSize);
+	}
+
+	// Continue after IDs issued before the sequence table existed
+	private long firstFreeNumber(String prefix) {
+		String highest = userRepository.findHighestNumericStudentId(prefix).orElse(null);
+		if (highest == null) {
+			return 1;
+		}
+		try {
+			return Long.parseLong(highest.substring(prefix.length())) + 1;
+		} catch (NumberFormatException e) {
+			// Only reachable if the suffix overflows a long; guessing could reissue an existing ID
+			throw new IllegalStateException("Cannot continue student IDs after " + highest, e);
+		}
+	}
+}
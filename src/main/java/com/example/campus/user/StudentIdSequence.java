@@ -0,0 +1,37 @@
+package com.example.campus.user;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * High-water mark of student IDs handed out per prefix (e.g. "STU25").
+ * {@link StudentIdAllocator} reserves blocks from it instead of counting users.
+ */
+@Entity
+@Table(name = "student_id_sequences")
+public class StudentIdSequence {
+	@Id
+	@Column(length = 20)
+	private String prefix;
+
+	@Column(name = "next_value", nullable = false)
+	private Long nextValue;
+
+	public String getPrefix() {
+		return prefix;
+	}
+
+	public void setPrefix(String prefix) {
+		this.prefix = prefix;
+	}
+
+	public Long getNextValue() {
+		return nextValue;
+	}
+
+	public void setNextValue(Long nextValue) {
+		this.nextValue = nextValue;
+	}
+}
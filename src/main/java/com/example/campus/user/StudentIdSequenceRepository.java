@@ -0,0 +1,14 @@
+package com.example.campus.user;
+
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface StudentIdSequenceRepository extends JpaRepository<StudentIdSequence, String> {
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT s FROM StudentIdSequence s WHERE s.prefix = :prefix")
+	Optional<StudentIdSequence> findForUpdate(@Param("prefix") String prefix);
+}
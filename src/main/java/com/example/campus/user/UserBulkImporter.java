@@ -0,0 +1,226 @@
+package com.example.campus.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports users from a CSV stream (username,role,password per line, fields optionally
+ * double-quoted) in chunks: passwords are hashed in parallel, rows are written with one
+ * JDBC batch per chunk in its own transaction, and progress and per-row errors are written
+ * back as NDJSON while the upload is still being read.
+ */
+@Component
+public class UserBulkImporter {
+
+	private static final String INSERT_SQL =
+			"INSERT INTO users (username, password, role, student_id) VALUES (?, ?, ?, ?)";
+
+	private record Row(int line, String username, Role role, String password) {}
+
+	private final UserRepository userRepository;
+	private final PasswordEncoder passwordEncoder;
+	private final StudentIdAllocator studentIdAllocator;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectMapper objectMapper;
+	private final ExecutorService hashPool;
+
+	@Value("${app.import.batch-size:500}")
+	private int batchSize;
+
+	public UserBulkImporter(UserRepository userRepository,
+							PasswordEncoder passwordEncoder,
+							StudentIdAllocator studentIdAllocator,
+							JdbcTemplate jdbcTemplate,
+							PlatformTransactionManager transactionManager,
+							ObjectMapper objectMapper,
+							@Value("${app.import.hash-threads:0}") int hashThreads) {
+		this.userRepository = userRepository;
+		this.passwordEncoder = passwordEncoder;
+		this.studentIdAllocator = studentIdAllocator;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.objectMapper = objectMapper;
+		this.hashPool = Executors.newFixedThreadPool(
+				hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors());
+	}
+
+	public void importCsv(InputStream csv, OutputStream report) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+		Set<String> seen = new HashSet<>();
+		List<Row> chunk = new ArrayList<>(batchSize);
+		int[] totals = new int[3]; // processed, inserted, failed
+		int lineNumber = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			if (line.isBlank() || (lineNumber == 1 && line.toLowerCase().startsWith("username"))) {
+				continue;
+			}
+			totals[0]++;
+			Row row = parse(lineNumber, line, seen, report, totals);
+			if (row != null) {
+				chunk.add(row);
+			}
+			if (chunk.size() >= batchSize) {
+				flush(chunk, report, totals);
+			}
+		}
+		flush(chunk, report, totals);
+
+		Map<String, Object> summary = new LinkedHashMap<>();
+		summary.put("done", true);
+		summary.put("processed", totals[0]);
+		summary.put("inserted", totals[1]);
+		summary.put("failed", totals[2]);
+		write(report, summary);
+	}
+
+	private Row parse(int lineNumber, String line, Set<String> seen, OutputStream report, int[] totals) throws IOException {
+		List<String> fields = splitCsv(line);
+		if (fields == null || fields.size() != 3) {
+			return reject(lineNumber, null, "Expected username,role,password", report, totals);
+		}
+		String username = fields.get(0).trim();
+		String password = fields.get(2); // used exactly as given, spaces included
+		if (username.length() < 3 || username.length() > 100) {
+			return reject(lineNumber, username, "Username must be 3-100 characters", report, totals);
+		}
+		if (password.length() < 8 || password.length() > 255) {
+			return reject(lineNumber, username, "Password must be 8-255 characters", report, totals);
+		}
+		Role role;
+		try {
+			role = Role.valueOf(fields.get(1).trim().toUpperCase());
+		} catch (IllegalArgumentException ex) {
+			return reject(lineNumber, username, "Invalid role. Allowed: ADMIN, FACULTY, STUDENT", report, totals);
+		}
+		if (!seen.add(username)) {
+			return reject(lineNumber, username, "Duplicate username in file", report, totals);
+		}
+		return new Row(lineNumber, username, role, password);
+	}
+
+	private void flush(List<Row> chunk, OutputStream report, int[] totals) throws IOException {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		Set<String> existing = userRepository.findExistingUsernames(chunk.stream().map(Row::username).toList());
+		List<Row> rows = new ArrayList<>(chunk.size());
+		for (Row row : chunk) {
+			if (existing.contains(row.username())) {
+				reject(row.line(), row.username(), "User already exists", report, totals);
+			} else {
+				rows.add(row);
+			}
+		}
+		chunk.clear();
+
+		List<CompletableFuture<String>> hashes = rows.stream()
+				.map(row -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(row.password()), hashPool))
+				.toList();
+		List<Object[]> params = new ArrayList<>(rows.size());
+		for (int i = 0; i < rows.size(); i++) {
+			Row row = rows.get(i);
+			String studentId = row.role() == Role.STUDENT ? studentIdAllocator.next() : null;
+			params.add(new Object[] { row.username(), hashes.get(i).join(), row.role().name(), studentId });
+		}
+
+		try {
+			// One transaction, so a failed batch leaves none of its rows behind for the fallback to trip over
+			transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, params));
+			totals[1] += rows.size();
+		} catch (DataAccessException batchFailure) {
+			// Fall back to row by row so one bad row doesn't sink the whole chunk
+			for (int i = 0; i < rows.size(); i++) {
+				try {
+					jdbcTemplate.update(INSERT_SQL, params.get(i));
+					totals[1]++;
+				} catch (DataAccessException rowFailure) {
+					reject(rows.get(i).line(), rows.get(i).username(), rowFailure.getMostSpecificCause().getMessage(), report, totals);
+				}
+			}
+		}
+
+		Map<String, Object> progress = new LinkedHashMap<>();
+		progress.put("processed", totals[0]);
+		progress.put("inserted", totals[1]);
+		progress.put("failed", totals[2]);
+		write(report, progress);
+	}
+
+	// Splits one CSV line; fields may be double-quoted, with "" for a literal quote. Null if a quote is left open.
+	private static List<String> splitCsv(String line) {
+		List<String> fields = new ArrayList<>(3);
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		if (quoted) {
+			return null;
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	private Row reject(int lineNumber, String username, String error, OutputStream report, int[] totals) throws IOException {
+		totals[2]++;
+		Map<String, Object> entry = new LinkedHashMap<>();
+		entry.put("line", lineNumber);
+		entry.put("username", username);
+		entry.put("error", error);
+		write(report, entry);
+		return null;
+	}
+
+	private void write(OutputStream report, Map<String, Object> entry) throws IOException {
+		report.write(objectMapper.writeValueAsBytes(entry));
+		report.write('\n');
+		report.flush();
+	}
+
+	@PreDestroy
+	void shutdown() {
+		hashPool.shutdown();
+	}
+}
@@ -1,11 +1,26 @@
 package com.example.campus.user;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 	Optional<User> findByUsername(String username);
 	boolean existsByUsername(String username);
 	List<User> findByRole(Role role); // ✅ This now compiles
+
+	@Query("SELECT u.id FROM User u WHERE u.role = :role")
+	List<Long> findIdsByRole(@Param("role") Role role);
+
+	@Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+	Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+	// Only IDs that are the prefix followed by digits; hand-entered IDs with other suffixes are ignored
+	@Query(value = "SELECT student_id FROM users WHERE student_id REGEXP CONCAT('^', :prefix, '[0-9]+$') " +
+			"ORDER BY LENGTH(student_id) DESC, student_id DESC LIMIT 1", nativeQuery = true)
+	Optional<String> findHighestNumericStudentId(@Param("prefix") String prefix);
 }
@@ -0,0 +1,141 @@
+package com.example.campus.features;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rows per second for marking one 120-student class, before and after bulk attendance was
+ * batched. perRowCommit is the old path: one IDENTITY insert and one commit per student.
+ * batchedTransaction is AttendanceWriter's path: pre-allocated ids, the same upsert sent as
+ * JDBC batches of 50, and one commit. Runs against a scratch attendance_bench table in the
+ * MySQL database given by -Dbench.jdbc.url / bench.jdbc.user / bench.jdbc.password
+ * (defaults match application.properties):
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main AttendanceBatchBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AttendanceBatchBenchmark {
+
+    private static final int CLASS_SIZE = 120;
+    private static final int BATCH_SIZE = 50;
+
+    private static final String INSERT_SQL = "INSERT INTO attendance_bench (student_id, subject, date, status, " +
+            "marked_by, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_SQL = "INSERT INTO attendance_bench (id, student_id, subject, date, status, " +
+            "marked_by, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE status = VALUES(status), marked_by = VALUES(marked_by), updated_at = VALUES(updated_at)";
+
+    private Connection connection;
+    private LocalDate date;
+    private long nextId;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url", "jdbc:mysql://localhost:3306/campus_db?createDatabaseIfNotExist=true" +
+                        "&useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&rewriteBatchedStatements=true"),
+                System.getProperty("bench.jdbc.user", "harsimar"),
+                System.getProperty("bench.jdbc.password", "harsimar"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS attendance_bench");
+            statement.execute("CREATE TABLE attendance_bench (id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                    "student_id BIGINT NOT NULL, subject VARCHAR(255) NOT NULL, date DATE NOT NULL, " +
+                    "status VARCHAR(255) NOT NULL, marked_by VARCHAR(255), created_at DATETIME(6), updated_at DATETIME(6), " +
+                    "UNIQUE KEY uk_attendance_bench (student_id, subject, date))");
+        }
+        date = LocalDate.of(2000, 1, 1);
+        nextId = 1_000_000_000L; // well clear of the AUTO_INCREMENT ids written by perRowCommit
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS attendance_bench");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLASS_SIZE)
+    public void perRowCommit() throws SQLException {
+        connection.setAutoCommit(true);
+        Date day = nextDay();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+            for (int student = 1; student <= CLASS_SIZE; student++) {
+                insert.setLong(1, student);
+                insert.setString(2, "Benchmark");
+                insert.setDate(3, day);
+                insert.setString(4, "PRESENT");
+                insert.setString(5, "bench");
+                insert.setTimestamp(6, now);
+                insert.setTimestamp(7, now);
+                insert.executeUpdate();
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLASS_SIZE)
+    public void batchedTransaction() throws SQLException {
+        connection.setAutoCommit(false);
+        Date day = nextDay();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement upsert = connection.prepareStatement(UPSERT_SQL)) {
+            for (int student = 1; student <= CLASS_SIZE; student++) {
+                upsert.setLong(1, nextId++);
+                upsert.setLong(2, student);
+                upsert.setString(3, "Benchmark");
+                upsert.setDate(4, day);
+                upsert.setString(5, "PRESENT");
+                upsert.setString(6, "bench");
+                upsert.setTimestamp(7, now);
+                upsert.setTimestamp(8, now);
+                upsert.addBatch();
+                if (student % BATCH_SIZE == 0) {
+                    upsert.executeBatch();
+                }
+            }
+            upsert.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    // Each invocation marks a new day so rows never collide on (student_id, subject, date)
+    private Date nextDay() {
+        date = date.plusDays(1);
+        return Date.valueOf(date);
+    }
+}
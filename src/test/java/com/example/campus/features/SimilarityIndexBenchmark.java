@@ -0,0 +1,111 @@
+package com.example.campus.features;
+
+import com.example.campus.entity.AssignmentSubmission;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SimilarityIndex at 1k and 10k submissions of one assignment: indexing every submission,
+ * listing candidate pairs from the LSH buckets, and the all-pairs signature comparison the
+ * buckets replace. Texts are 150 words drawn from a 5,000-word vocabulary; every 20th
+ * submission is a lightly edited copy of an earlier one.
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main SimilarityIndexBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SimilarityIndexBenchmark {
+
+    private static final int WORDS = 150;
+    private static final int VOCABULARY = 5_000;
+
+    @Param({"1000", "10000"})
+    private int submissions;
+
+    private List<AssignmentSubmission> texts;
+    private SimilarityIndex index;
+    private long[][] signatures;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        texts = new ArrayList<>(submissions);
+        for (int i = 0; i < submissions; i++) {
+            String text;
+            if (i % 20 == 19) {
+                String[] copied = texts.get(random.nextInt(i)).getSubmissionText().split(" ");
+                for (int edit = 0; edit < 5; edit++) {
+                    copied[random.nextInt(copied.length)] = "w" + random.nextInt(VOCABULARY);
+                }
+                text = String.join(" ", copied);
+            } else {
+                StringBuilder builder = new StringBuilder();
+                for (int w = 0; w < WORDS; w++) {
+                    builder.append('w').append(random.nextInt(VOCABULARY)).append(' ');
+                }
+                text = builder.toString();
+            }
+            AssignmentSubmission submission = new AssignmentSubmission();
+            submission.setId((long) i + 1);
+            submission.setAssignmentId(1L);
+            submission.setStudentId((long) i + 1);
+            submission.setSubmissionText(text);
+            texts.add(submission);
+        }
+        index = buildIndex();
+        signatures = new long[submissions][];
+        for (int i = 0; i < submissions; i++) {
+            signatures[i] = SimilarityIndex.signature(texts.get(i).getSubmissionText());
+        }
+    }
+
+    @Benchmark
+    public SimilarityIndex indexAll() {
+        return buildIndex();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> candidatePairs() {
+        return index.candidatePairs(1L, 0.8);
+    }
+
+    @Benchmark
+    public int allPairsBaseline() {
+        int similar = 0;
+        for (int i = 0; i < signatures.length; i++) {
+            for (int j = i + 1; j < signatures.length; j++) {
+                if (SimilarityIndex.similarity(signatures[i], signatures[j]) >= 0.8) {
+                    similar++;
+                }
+            }
+        }
+        return similar;
+    }
+
+    private SimilarityIndex buildIndex() {
+        SimilarityIndex built = new SimilarityIndex(null); // the DataSource is only used by load()
+        texts.forEach(built::add);
+        return built;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.campus.features;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+
+	// Level spans: 64 ticks, 64^2, 64^3, 64^4
+	private static final long L1 = 64;
+	private static final long L2 = 64 * 64;
+	private static final long L3 = 64 * 64 * 64;
+	private static final long TOP = 64L * 64 * 64 * 64;
+
+	@Test
+	void firesOnItsTickWithinLevelZero() {
+		TimerWheel<String> wheel = new TimerWheel<>(1000);
+		wheel.schedule(1001, "next");
+		wheel.schedule(1063, "last-slot");
+
+		Map<String, Long> fired = runUntil(wheel, 1000, 1100);
+
+		assertEquals(Map.of("next", 1001L, "last-slot", 1063L), fired);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void cascadesAcrossLevelBoundaries() {
+		long start = 10; // not aligned, so deadlines straddle slot boundaries on every level
+		TimerWheel<Long> wheel = new TimerWheel<>(start);
+		List<Long> deadlines = List.of(start + L1 - 1, start + L1, start + L1 + 1, L1 * 2,
+				start + L2 - 1, start + L2, L2 * 2, L2 * 2 + 1,
+				start + L3 - 1, start + L3, L3 * 3, L3 * 3 + 7);
+		deadlines.forEach(d -> wheel.schedule(d, d));
+
+		Map<Long, Long> fired = runUntil(wheel, start, L3 * 3 + 10);
+
+		assertEquals(deadlines.size(), fired.size());
+		fired.forEach((deadline, tick) -> assertEquals(deadline, tick, "timer for " + deadline));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void replacesTimersBeyondTheTopLevel() {
+		long start = 5;
+		TimerWheel<String> wheel = new TimerWheel<>(start);
+		long far = start + TOP + 100;
+		long farther = start + 2 * TOP + 3;
+		wheel.schedule(far, "far");
+		wheel.schedule(farther, "farther");
+
+		Map<String, Long> fired = runUntil(wheel, start, farther + 1);
+
+		assertEquals(Map.of("far", far, "farther", farther), fired);
+	}
+
+	@Test
+	void pastDeadlinesFireOnTheNextTick() {
+		TimerWheel<String> wheel = new TimerWheel<>(500);
+		wheel.schedule(10, "overdue");
+		wheel.schedule(500, "now");
+
+		Map<String, Long> fired = runUntil(wheel, 500, 502);
+
+		assertEquals(Map.of("overdue", 501L, "now", 501L), fired);
+	}
+
+	@Test
+	void advancingManyTicksAtOnceFiresEverythingDue() {
+		Random random = new Random(7);
+		TimerWheel<Long> wheel = new TimerWheel<>(0);
+		List<Long> due = new ArrayList<>();
+		for (int i = 0; i < 20_000; i++) {
+			long deadline = 1 + (long) (random.nextDouble() * random.nextDouble() * 2 * L3);
+			wheel.schedule(deadline, deadline);
+			if (deadline <= L3) {
+				due.add(deadline);
+			}
+		}
+
+		List<Long> fired = new ArrayList<>();
+		wheel.advanceTo(L3, fired::add);
+
+		assertEquals(due.size(), fired.size());
+		assertTrue(fired.stream().allMatch(d -> d <= L3));
+		for (int i = 1; i < fired.size(); i++) {
+			assertTrue(fired.get(i - 1) <= fired.get(i), "fired out of tick order");
+		}
+		assertEquals(20_000 - due.size(), wheel.size());
+	}
+
+	// Advances one tick at a time and records the tick each task fired on
+	private static <T> Map<T, Long> runUntil(TimerWheel<T> wheel, long from, long to) {
+		Map<T, Long> fired = new HashMap<>();
+		for (long tick = from + 1; tick <= to; tick++) {
+			long now = tick;
+			wheel.advanceTo(tick, task -> fired.put(task, now));
+		}
+		return fired;
+	}
+}